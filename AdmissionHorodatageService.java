@@ -0,0 +1,127 @@
+package fr.gouv.diplomatie.rece.etatcivil.application.services;
+
+import fr.gouv.diplomatie.rece.commun.exceptions.TechnicalException;
+import fr.gouv.diplomatie.rece.etatcivil.domain.enums.TechnicalExceptionCode;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Contrôle d'admission des appels à l'horodatage lors de la signature. Le nombre d'appels simultanés est borné par une
+ * limite qui s'adapte à la latence observée : elle augmente doucement tant que l'horodatage répond sous la latence cible,
+ * et diminue franchement dès qu'il ralentit ou échoue. Au-delà de la limite, une signature attend une place pendant une
+ * durée bornée, puis est refusée avec un délai de nouvelle tentative, avant tout appel à l'horodatage : un ralentissement
+ * réduit le débit sans provoquer de blocage de l'horodatage pour tous.
+ */
+@Service
+public class AdmissionHorodatageService {
+
+	private static final double FACTEUR_REDUCTION = 0.75;
+	private static final double POIDS_LATENCE_RECENTE = 0.2;
+
+	private final ReentrantLock verrou = new ReentrantLock();
+	private final Condition placeLibre = verrou.newCondition();
+
+	@Value("${signature.admission.limite-min:1}")
+	private int limiteMin;
+	@Value("${signature.admission.limite-max:32}")
+	private int limiteMax;
+	@Value("${signature.admission.latence-cible:PT3S}")
+	private Duration latenceCible;
+	@Value("${signature.admission.attente-max:PT5S}")
+	private Duration attenteMax;
+	@Value("${signature.admission.nombre-max-en-attente:50}")
+	private int nombreMaxEnAttente;
+
+	private double limite;
+	private int enCours;
+	private int enAttente;
+	private double latenceMoyenneNanos;
+	private long dateDerniereReductionNanos;
+
+	@PostConstruct
+	void initialiser() {
+		limite = limiteMax;
+		dateDerniereReductionNanos = System.nanoTime() - latenceCible.toNanos();
+	}
+
+	public <T> T executer(final Supplier<T> appelHorodatage) {
+		admettre();
+		final long debut = System.nanoTime();
+		boolean defaillance = false;
+		try {
+			return appelHorodatage.get();
+		} catch (TechnicalException e) {
+			defaillance = true;
+			throw e;
+		} finally {
+			liberer(System.nanoTime() - debut, defaillance);
+		}
+	}
+
+	private void admettre() {
+		verrou.lock();
+		try {
+			if (enCours >= (int) limite) {
+				if (enAttente >= nombreMaxEnAttente) {
+					throw saturation();
+				}
+				enAttente++;
+				try {
+					long attenteRestanteNanos = attenteMax.toNanos();
+					while (enCours >= (int) limite) {
+						if (attenteRestanteNanos <= 0) {
+							throw saturation();
+						}
+						attenteRestanteNanos = placeLibre.awaitNanos(attenteRestanteNanos);
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw saturation();
+				} finally {
+					enAttente--;
+				}
+			}
+			enCours++;
+		} finally {
+			verrou.unlock();
+		}
+	}
+
+	private void liberer(final long dureeNanos, final boolean defaillance) {
+		verrou.lock();
+		try {
+			enCours--;
+			latenceMoyenneNanos = latenceMoyenneNanos == 0
+					? dureeNanos
+					: latenceMoyenneNanos * (1 - POIDS_LATENCE_RECENTE) + dureeNanos * POIDS_LATENCE_RECENTE;
+
+			final long maintenant = System.nanoTime();
+			if (defaillance || dureeNanos > latenceCible.toNanos()) {
+				// Une seule réduction par latence cible : les appels lents qui se terminent ensemble ne comptent qu'une fois
+				if (maintenant - dateDerniereReductionNanos >= latenceCible.toNanos()) {
+					limite = Math.max(limiteMin, limite * FACTEUR_REDUCTION);
+					dateDerniereReductionNanos = maintenant;
+				}
+			} else {
+				limite = Math.min(limiteMax, limite + 1 / limite);
+			}
+			placeLibre.signalAll();
+		} finally {
+			verrou.unlock();
+		}
+	}
+
+	private TechnicalException saturation() {
+		// Délai estimé pour écouler les signatures en cours et en attente au rythme actuel de l'horodatage
+		final double nombreDevant = enCours + enAttente;
+		final long delaiSecondes = Math.max(1, (long) Math.ceil(latenceMoyenneNanos * nombreDevant / Math.max(1, (int) limite) / TimeUnit.SECONDS.toNanos(1)));
+		return new TechnicalException(TechnicalExceptionCode.HORODATAGE_SATURE, delaiSecondes);
+	}
+}
@@ -0,0 +1,71 @@
+package fr.gouv.diplomatie.rece.etatcivil.application.services;
+
+import fr.gouv.diplomatie.rece.commun.exceptions.BusinessException;
+import fr.gouv.diplomatie.rece.etatcivil.application.ports.out.LoadMentionPort;
+import fr.gouv.diplomatie.rece.etatcivil.domain.enums.BusinessExceptionCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Attribution des numéros d'ordre d'un acte : numéro de signature du prochain document mentions et base de numérotation
+ * des mentions créées. Ces numéros se déduisent de ce qui est déjà signé sur l'acte et ne doivent pas avoir de trou :
+ * l'attribution est sérialisée par acte (verrous répartis par empreinte), sans bloquer les traitements des autres actes.
+ * Les verrous sont des {@link ReentrantLock} et non des moniteurs {@code synchronized}, qui épinglent un thread virtuel
+ * sur son thread porteur pendant l'attente.
+ * <p>
+ * Ces verrous ne valent que pour cette instance : en déploiement multi-instances, l'absence de doublon repose sur la base
+ * (contrainte d'unicité sur l'acte et le numéro d'ordre), une attribution concurrente sur une autre instance échouant à
+ * l'enregistrement.
+ */
+@RequiredArgsConstructor
+@Service
+public class AllocationNumeroOrdreService {
+
+	private static final int NOMBRE_VERROUS = 256;
+
+	private final LoadMentionPort loadMentionPort;
+
+	private final ReentrantLock[] verrous = creerVerrous();
+
+	public byte getProchainNumeroOrdreDocumentMentions(final UUID idActe) {
+		final int prochainNumeroOrdre = Optional.ofNullable(loadMentionPort.getDernierNumeroOrdreSignatureDocumentMentionsActeById(idActe))
+												.map(Number::intValue)
+												.orElse(0) + 1;
+		// Le numéro est stocké sur un octet : on refuse plutôt que de reboucler sur un numéro négatif
+		if (prochainNumeroOrdre > Byte.MAX_VALUE) {
+			throw new BusinessException(BusinessExceptionCode.NUMERO_ORDRE_DOCUMENT_MENTIONS_EPUISE, idActe, prochainNumeroOrdre);
+		}
+		return (byte) prochainNumeroOrdre;
+	}
+
+	public long getDernierNumeroOrdreMentionsSignees(final UUID idActe) {
+		return Optional.ofNullable(loadMentionPort.getDernierNumeroOrdreMentionsSigneeActeById(idActe)).orElse(0L);
+	}
+
+	/**
+	 * Exécute une attribution de numéro et l'enregistrement qui la consomme sans qu'un autre traitement du même acte
+	 * puisse s'intercaler sur cette instance.
+	 */
+	public <T> T attribuerPourActe(final UUID idActe, final Supplier<T> attribution) {
+		final ReentrantLock verrou = verrous[Math.floorMod(idActe.hashCode(), NOMBRE_VERROUS)];
+		verrou.lock();
+		try {
+			return attribution.get();
+		} finally {
+			verrou.unlock();
+		}
+	}
+
+	private static ReentrantLock[] creerVerrous() {
+		final ReentrantLock[] verrous = new ReentrantLock[NOMBRE_VERROUS];
+		for (int i = 0; i < NOMBRE_VERROUS; i++) {
+			verrous[i] = new ReentrantLock();
+		}
+		return verrous;
+	}
+}
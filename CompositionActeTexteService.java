@@ -0,0 +1,45 @@
+package fr.gouv.diplomatie.rece.etatcivil.application.services;
+
+import fr.gouv.diplomatie.rece.etatcivil.application.ports.in.ActeTraitement;
+import fr.gouv.diplomatie.rece.etatcivil.application.ports.in.CompositionActeTexteTraitement;
+import fr.gouv.diplomatie.rece.etatcivil.application.ports.out.LoadActePort;
+import fr.gouv.diplomatie.rece.etatcivil.application.services.CompositionJsonActeCache.VarianteComposition;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+/**
+ * Json de composition servis pendant l'édition d'un acte : seule la version de l'acte est relue à chaque appel, le graphe
+ * de l'acte n'est rechargé et le json recalculé que si l'acte a changé depuis le dernier calcul.
+ */
+@RequiredArgsConstructor
+@Service
+public class CompositionActeTexteService implements CompositionActeTexteTraitement {
+
+	private final ActeTraitement acteTraitement;
+	private final LoadActePort loadActePort;
+	private final CompositionJsonActeCache compositionJsonActeCache;
+
+	@Override
+	public String getCorpsActeTexte(final UUID idActe, final String idArobas, final boolean misAJour) {
+		acteTraitement.controlerDroitsConsultationActe(idActe, idArobas);
+		return compositionJsonActeCache.getOuCalculer(idActe,
+													  misAJour ? VarianteComposition.ACTE_TEXTE_MIS_A_JOUR : VarianteComposition.ACTE_TEXTE,
+													  idArobas,
+													  loadActePort.getVersionActe(idActe),
+													  () -> acteTraitement.getCorpsActeTexte(idActe, idArobas, misAJour));
+	}
+
+	@Override
+	public String getActeReprisTexte(final UUID idActe, final String idArobas) {
+		acteTraitement.controlerDroitsConsultationActe(idActe, idArobas);
+		return compositionJsonActeCache.getOuCalculer(idActe, VarianteComposition.ACTE_REPRIS, idArobas, loadActePort.getVersionActe(idActe),
+													  () -> acteTraitement.getActeReprisTexte(idActe, idArobas));
+	}
+
+	@Override
+	public void invaliderCompositionActe(final UUID idActe) {
+		compositionJsonActeCache.invalider(idActe);
+	}
+}
@@ -0,0 +1,12 @@
+package fr.gouv.diplomatie.rece.etatcivil.application.ports.in;
+
+import java.util.UUID;
+
+public interface CompositionActeTexteTraitement {
+
+	String getCorpsActeTexte(UUID idActe, String idArobas, boolean misAJour);
+
+	String getActeReprisTexte(UUID idActe, String idArobas);
+
+	void invaliderCompositionActe(UUID idActe);
+}
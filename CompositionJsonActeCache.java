@@ -0,0 +1,70 @@
+package fr.gouv.diplomatie.rece.etatcivil.application.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Cache des json de composition servis pour la prévisualisation (acte texte, acte texte mis à jour, acte repris), par
+ * acte, variante et agent. Chaque json est associé à la version de l'acte lue en base avant son calcul : il n'est servi
+ * que tant que l'acte est à cette version, y compris après une modification faite sur une autre instance.
+ * {@link #invalider(UUID)} libère au plus tôt les json d'un acte modifié ; les entrées les moins récemment lues sont
+ * évincées au-delà de la taille maximale. Le contrôle des droits reste à la charge de l'appelant, avant toute lecture.
+ */
+@Service
+public class CompositionJsonActeCache {
+
+	public enum VarianteComposition {
+		ACTE_TEXTE,
+		ACTE_TEXTE_MIS_A_JOUR,
+		ACTE_REPRIS
+	}
+
+	private final Map<CleComposition, EntreeCache> jsonParCle;
+
+	public CompositionJsonActeCache(@Value("${composition.json.cache.nombre-max-entrees:2000}") final int nombreMaxEntrees) {
+		this.jsonParCle = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<CleComposition, EntreeCache> plusAncienne) {
+				return size() > nombreMaxEntrees;
+			}
+		};
+	}
+
+	public String getOuCalculer(final UUID idActe, final VarianteComposition variante, final String idArobas, final long versionActe,
+								final Supplier<String> calcul) {
+		final CleComposition cle = new CleComposition(idActe, variante, idArobas);
+		synchronized (jsonParCle) {
+			final EntreeCache entree = jsonParCle.get(cle);
+			if (entree != null && entree.versionActe() == versionActe) {
+				return entree.json();
+			}
+		}
+
+		final String json = calcul.get();
+		synchronized (jsonParCle) {
+			// Un calcul fondé sur une version antérieure ne remplace pas le json d'une version plus récente
+			final EntreeCache entree = jsonParCle.get(cle);
+			if (entree == null || entree.versionActe() <= versionActe) {
+				jsonParCle.put(cle, new EntreeCache(json, versionActe));
+			}
+		}
+		return json;
+	}
+
+	public void invalider(final UUID idActe) {
+		synchronized (jsonParCle) {
+			jsonParCle.keySet().removeIf(cle -> cle.idActe().equals(idActe));
+		}
+	}
+
+	private record CleComposition(UUID idActe, VarianteComposition variante, String idArobas) {
+	}
+
+	private record EntreeCache(String json, long versionActe) {
+	}
+}
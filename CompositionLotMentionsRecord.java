@@ -0,0 +1,7 @@
+package fr.gouv.diplomatie.rece.etatcivil.dto.signature;
+
+import java.util.List;
+import java.util.UUID;
+
+public record CompositionLotMentionsRecord(SignatureCompositionRecord signature, List<UUID> idsActes) {
+}
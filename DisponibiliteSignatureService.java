@@ -0,0 +1,66 @@
+package fr.gouv.diplomatie.rece.etatcivil.application.services;
+
+import fr.gouv.diplomatie.rece.etatcivil.application.ports.in.SuiviSignatureTraitement;
+import fr.gouv.diplomatie.rece.etatcivil.domain.enums.StatutSignature;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Instantané en mémoire du statut de la signature (historique des statuts et blocages), rafraîchi en tâche de fond.
+ * Les contrôles de disponibilité du parcours de signature le lisent sans interroger la base ; un instantané plus ancien
+ * que la durée de validité, ou invalidé suite à la création d'un blocage, est rechargé à la lecture.
+ */
+@RequiredArgsConstructor
+@Service
+public class DisponibiliteSignatureService {
+
+	private final SuiviSignatureTraitement suiviSignature;
+	private final Clock clock;
+
+	private final AtomicReference<Etat> etat = new AtomicReference<>(new Etat(0, null));
+
+	@Value("${signature.statut.duree-validite:PT10S}")
+	private Duration dureeValidite;
+
+	public StatutSignature getStatutSignature() {
+		Instantane courant = etat.get().instantane();
+		if (courant == null || courant.dateChargement().plus(dureeValidite).isBefore(Instant.now(clock))) {
+			courant = charger();
+		}
+		return courant.statut();
+	}
+
+	/**
+	 * À appeler après toute création de blocage : le prochain contrôle relira le statut en base.
+	 */
+	public void invalider() {
+		etat.updateAndGet(courant -> new Etat(courant.generation() + 1, null));
+	}
+
+	@Scheduled(fixedDelayString = "${signature.statut.periode-rafraichissement:PT5S}")
+	public void rafraichir() {
+		charger();
+	}
+
+	private Instantane charger() {
+		// Un chargement commencé avant une invalidation ne doit pas republier un statut antérieur au blocage : la
+		// publication échoue si la génération a changé depuis la lecture
+		final Etat etatLecture = etat.get();
+		final Instantane nouveau = new Instantane(suiviSignature.getStatutSignature(), Instant.now(clock));
+		etat.compareAndSet(etatLecture, new Etat(etatLecture.generation(), nouveau));
+		return nouveau;
+	}
+
+	private record Instantane(StatutSignature statut, Instant dateChargement) {
+	}
+
+	private record Etat(long generation, Instantane instantane) {
+	}
+}
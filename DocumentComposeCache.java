@@ -0,0 +1,57 @@
+package fr.gouv.diplomatie.rece.etatcivil.application.services;
+
+import fr.gouv.diplomatie.rece.etatcivil.domain.enums.TypeDocumentComposition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Cache des documents PDF composés, borné en octets avec éviction du moins récemment utilisé.
+ * La clé porte un marqueur de version de l'acte : toute modification de l'acte produit une nouvelle clé, les anciennes
+ * entrées n'étant plus lues puis évincées.
+ */
+@Service
+public class DocumentComposeCache {
+
+	private final Map<CleDocumentCompose, byte[]> documents = new LinkedHashMap<>(16, 0.75f, true);
+	private long tailleTotale;
+
+	@Value("${composition.cache.taille-max-octets:67108864}")
+	private long tailleMax;
+
+	public byte[] getOuComposer(final CleDocumentCompose cle, final Supplier<byte[]> composition) {
+		synchronized (documents) {
+			final byte[] document = documents.get(cle);
+			if (document != null) {
+				return document;
+			}
+		}
+
+		// La composition est faite hors verrou : deux compositions concurrentes d'une même clé produisent le même document
+		final byte[] document = composition.get();
+		if (document.length <= tailleMax) {
+			synchronized (documents) {
+				final byte[] precedent = documents.put(cle, document);
+				tailleTotale += document.length - (precedent == null ? 0 : precedent.length);
+				evincer();
+			}
+		}
+		return document;
+	}
+
+	private void evincer() {
+		final Iterator<byte[]> iterateur = documents.values().iterator();
+		while (tailleTotale > tailleMax && iterateur.hasNext()) {
+			tailleTotale -= iterateur.next().length;
+			iterateur.remove();
+		}
+	}
+
+	public record CleDocumentCompose(UUID idActe, String version, TypeDocumentComposition type) {
+	}
+}
@@ -0,0 +1,123 @@
+package fr.gouv.diplomatie.rece.etatcivil.adapters.rest.utils;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Découpe une liste d'identifiants en lots de taille bornée, traités en parallèle avec un nombre borné de lots en cours.
+ * Les résultats sont restitués lot par lot dans l'ordre des identifiants, ce qui permet de les écrire au fil de l'eau.
+ * <p>
+ * La limite de lots en cours s'applique à chaque appel : deux appels simultanés ne se partagent pas quatre threads. Le
+ * nombre total de threads reste borné ; au-delà, le lot est traité par le thread appelant. Les lots s'exécutent avec le
+ * contexte de sécurité et les attributs de requête de l'appelant, et l'échec d'un lot annule les lots encore en cours.
+ */
+@Component
+public class ExecuteurParLots {
+
+	@Value("${lots.taille:500}")
+	private int tailleLot;
+	@Value("${lots.parallelisme:4}")
+	private int parallelisme;
+	@Value("${lots.nombre-max-threads:32}")
+	private int nombreMaxThreads;
+
+	private ThreadPoolExecutor executor;
+
+	@PostConstruct
+	void initialiser() {
+		AtomicInteger compteur = new AtomicInteger();
+		executor = new ThreadPoolExecutor(0, nombreMaxThreads, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+			Thread thread = new Thread(runnable, "execution-lots-" + compteur.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}, new ThreadPoolExecutor.CallerRunsPolicy());
+	}
+
+	@PreDestroy
+	void arreter() {
+		executor.shutdownNow();
+	}
+
+	public <I, T> void traiter(final List<I> ids, final Function<List<I>, List<T>> traitement, final Consumer<List<T>> consommateur) {
+		// Au plus "parallelisme" lots en cours : la mémoire retenue reste bornée quelle que soit la taille de la liste
+		final Deque<Future<List<T>>> lotsEnCours = new ArrayDeque<>();
+		try {
+			for (int debut = 0; debut < ids.size(); debut += tailleLot) {
+				if (lotsEnCours.size() >= parallelisme) {
+					consommateur.accept(attendre(lotsEnCours.poll()));
+				}
+				final List<I> lot = List.copyOf(ids.subList(debut, Math.min(debut + tailleLot, ids.size())));
+				lotsEnCours.add(soumettre(() -> traitement.apply(lot)));
+			}
+			while (!lotsEnCours.isEmpty()) {
+				consommateur.accept(attendre(lotsEnCours.poll()));
+			}
+		} catch (RuntimeException | Error e) {
+			// Un lot en échec ou un consommateur interrompu (client déconnecté) : les autres lots ne serviront plus
+			lotsEnCours.forEach(lotEnCours -> lotEnCours.cancel(true));
+			throw e;
+		}
+	}
+
+	public <I, T> List<T> traiter(final List<I> ids, final Function<List<I>, List<T>> traitement) {
+		final List<T> resultats = new ArrayList<>();
+		traiter(ids, traitement, resultats::addAll);
+		return resultats;
+	}
+
+	private <T> Future<T> soumettre(final Callable<T> lot) {
+		final SecurityContext contexteSecurite = SecurityContextHolder.getContext();
+		final RequestAttributes attributsRequete = RequestContextHolder.getRequestAttributes();
+		return executor.submit(() -> {
+			// Le contexte du thread est restauré ensuite : le lot peut s'exécuter sur le thread appelant
+			final SecurityContext contexteSecuritePrecedent = SecurityContextHolder.getContext();
+			final RequestAttributes attributsRequetePrecedents = RequestContextHolder.getRequestAttributes();
+			SecurityContextHolder.setContext(contexteSecurite);
+			RequestContextHolder.setRequestAttributes(attributsRequete);
+			try {
+				return lot.call();
+			} finally {
+				SecurityContextHolder.setContext(contexteSecuritePrecedent);
+				RequestContextHolder.setRequestAttributes(attributsRequetePrecedents);
+			}
+		});
+	}
+
+	private static <T> T attendre(final Future<T> lot) {
+		try {
+			return lot.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		} catch (ExecutionException e) {
+			// On restitue l'exception d'origine pour que le gestionnaire global la traite comme un appel direct
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			if (e.getCause() instanceof Error cause) {
+				throw cause;
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+}
@@ -0,0 +1,56 @@
+package fr.gouv.diplomatie.rece.etatcivil.adapters.rest.controllers;
+
+import fr.gouv.diplomatie.rece.commun.bo.Result;
+import fr.gouv.diplomatie.rece.etatcivil.application.ports.in.UtilisateurCacheTraitement;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Invalidation du cache des utilisateurs, appelée par la gestion des habilitations après chaque modification des droits
+ * d'un agent. L'appel n'atteint qu'une instance : sur les autres, l'utilisateur est rechargé au plus tard à l'expiration
+ * de son entrée ({@code habilitation.cache.duree-vie}).
+ */
+@RestController
+@RequestMapping(value = "/v1/habilitation/cache", produces = {MediaType.APPLICATION_JSON_VALUE}, consumes = {MediaType.ALL_VALUE})
+@RequiredArgsConstructor
+public class HabilitationCacheController {
+
+	private final UtilisateurCacheTraitement utilisateurCacheTraitement;
+
+	@PreAuthorize("estBatch(#request)")
+	@ApiOperation(value = "Invalidation de l'utilisateur en cache après modification de ses habilitations")
+	@ApiResponses(value = {
+			@ApiResponse(code = 200, message = "OK", response = Result.class),
+			@ApiResponse(code = 403, message = "Erreur de droit", response = Result.class),
+			@ApiResponse(code = 500, message = "Erreur interne", response = Result.class)})
+	@ResponseStatus(value = HttpStatus.OK)
+	@DeleteMapping(value = "/utilisateurs/{idArobas}")
+	public Result<Void> invaliderUtilisateur(@PathVariable final String idArobas, final HttpServletRequest request) {
+		utilisateurCacheTraitement.invalider(idArobas);
+		return new Result<>(null);
+	}
+
+	@PreAuthorize("estBatch(#request)")
+	@ApiOperation(value = "Invalidation de tous les utilisateurs en cache")
+	@ApiResponses(value = {
+			@ApiResponse(code = 200, message = "OK", response = Result.class),
+			@ApiResponse(code = 403, message = "Erreur de droit", response = Result.class),
+			@ApiResponse(code = 500, message = "Erreur interne", response = Result.class)})
+	@ResponseStatus(value = HttpStatus.OK)
+	@DeleteMapping(value = "/utilisateurs")
+	public Result<Void> invaliderUtilisateurs(final HttpServletRequest request) {
+		utilisateurCacheTraitement.invaliderTout();
+		return new Result<>(null);
+	}
+}
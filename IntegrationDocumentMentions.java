@@ -0,0 +1,38 @@
+package fr.gouv.diplomatie.rece.etatcivil.domain.repertoirecivil.mention;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Suivi durable de l'intégration d'un document mentions signé. L'horodatage et le stockage Swift sont réalisés hors
+ * transaction : l'étape atteinte et les références Swift sont enregistrées pour permettre la reprise d'une intégration
+ * dont la mise à jour en base n'a pas abouti.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IntegrationDocumentMentions {
+
+	private UUID idDocumentMentions;
+	private UUID idActe;
+	private String idArobas;
+	private EtapeIntegration etape;
+	private Instant dateHorodatage;
+	private String conteneurSwift;
+	private String referenceSwift;
+	private Instant dateDerniereEtape;
+
+	public enum EtapeIntegration {
+		STOCKE,
+		INTEGRE,
+		ECHEC
+	}
+}
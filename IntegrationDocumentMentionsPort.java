@@ -0,0 +1,19 @@
+package fr.gouv.diplomatie.rece.etatcivil.application.ports.out;
+
+import fr.gouv.diplomatie.rece.etatcivil.domain.repertoirecivil.mention.IntegrationDocumentMentions;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface IntegrationDocumentMentionsPort {
+
+	/**
+	 * Enregistre l'étape d'intégration dans sa propre transaction, indépendamment de la transaction appelante.
+	 */
+	IntegrationDocumentMentions enregistrer(IntegrationDocumentMentions integrationDocumentMentions);
+
+	/**
+	 * Intégrations restées à l'étape STOCKE dont la dernière étape est antérieure à la date limite.
+	 */
+	List<IntegrationDocumentMentions> getIntegrationsNonTermineesAvant(Instant dateLimite);
+}
@@ -0,0 +1,258 @@
+package fr.gouv.diplomatie.rece.etatcivil.application.services;
+
+import fr.gouv.diplomatie.rece.commun.exceptions.BusinessException;
+import fr.gouv.diplomatie.rece.commun.exceptions.TechnicalException;
+import fr.gouv.diplomatie.rece.etatcivil.application.ports.in.PreuveSignatureActeTraitement;
+import fr.gouv.diplomatie.rece.etatcivil.domain.enums.BusinessExceptionCode;
+import fr.gouv.diplomatie.rece.etatcivil.domain.enums.TechnicalExceptionCode;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Enregistrement différé des preuves pré-signature : le pdf composé est d'abord écrit et synchronisé sur disque local,
+ * ce qui suffit à rendre la main à l'agent, puis transféré en base par une tâche de fond. Avant d'intégrer un document
+ * signé, {@link #garantirEnregistree(UUID)} termine le transfert de sa preuve et vérifie qu'elle est bien en base.
+ * <p>
+ * Un fichier {@code <id>.pdf} est une preuve en attente ; il est renommé en {@code <id>.transfert} le temps du transfert,
+ * et redevient en attente si le transfert échoue. Le balayage périodique reprend les preuves en attente et les transferts
+ * interrompus. Les preuves sont des actes d'état civil : elles sont chiffrées (AES-GCM) avant d'être écrites sur le disque.
+ */
+@RequiredArgsConstructor
+@Service
+@Slf4j
+public class JournalPreuvesAvantSignature {
+
+	private static final String EXTENSION_EN_ATTENTE = ".pdf";
+	private static final String EXTENSION_EN_ECRITURE = ".pdf.tmp";
+	private static final String EXTENSION_EN_TRANSFERT = ".transfert";
+	private static final String ALGORITHME_CHIFFREMENT = "AES/GCM/NoPadding";
+	private static final int TAILLE_IV = 12;
+	private static final int TAILLE_TAG_BITS = 128;
+
+	private final PreuveSignatureActeTraitement preuveSignatureActeTraitement;
+
+	private final Map<UUID, CompletableFuture<Void>> transfertsEnCours = new ConcurrentHashMap<>();
+
+	private final SecureRandom aleatoire = new SecureRandom();
+
+	@Value("${signature.preuve-avant-signature.journal.repertoire}")
+	private Path repertoire;
+	@Value("${signature.preuve-avant-signature.journal.cle-chiffrement}")
+	private String cleChiffrementBase64;
+
+	private SecretKey cle;
+	private ExecutorService executor;
+
+	@PostConstruct
+	void initialiser() throws IOException {
+		cle = new SecretKeySpec(Base64.getDecoder().decode(cleChiffrementBase64), "AES");
+		Files.createDirectories(repertoire);
+		executor = Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "transfert-preuves-avant-signature");
+			thread.setDaemon(true);
+			return thread;
+		});
+		reprendre();
+	}
+
+	@PreDestroy
+	void arreter() {
+		// Les preuves non transférées restent dans le journal et seront reprises au prochain démarrage
+		executor.shutdownNow();
+	}
+
+	public void enregistrer(final UUID idDocumentMentions, final byte[] preuve) {
+		final Path enEcriture = repertoire.resolve(idDocumentMentions + EXTENSION_EN_ECRITURE);
+		try (FileChannel canal = FileChannel.open(enEcriture, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			final ByteBuffer contenu = ByteBuffer.wrap(chiffrer(idDocumentMentions, preuve));
+			while (contenu.hasRemaining()) {
+				canal.write(contenu);
+			}
+			canal.force(true);
+		} catch (IOException e) {
+			throw new TechnicalException(TechnicalExceptionCode.TECH_JOURNAL_PREUVE_AVANT_SIGNATURE, idDocumentMentions, e);
+		}
+		try {
+			// Le renommage rend la preuve visible d'un bloc : le transfert ne lit jamais un fichier partiellement écrit
+			Files.move(enEcriture, getFichierEnAttente(idDocumentMentions), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			throw new TechnicalException(TechnicalExceptionCode.TECH_JOURNAL_PREUVE_AVANT_SIGNATURE, idDocumentMentions, e);
+		}
+		planifierTransfert(idDocumentMentions);
+	}
+
+	/**
+	 * Transfère immédiatement la preuve du document si elle est encore au journal de cette instance, puis vérifie sa
+	 * présence en base : une preuve journalisée sur une autre instance peut ne pas être encore transférée.
+	 */
+	public void garantirEnregistree(final UUID idDocumentMentions) {
+		while (Files.exists(getFichierEnAttente(idDocumentMentions)) || transfertsEnCours.containsKey(idDocumentMentions)) {
+			attendre(planifierTransfert(idDocumentMentions));
+		}
+		if (!preuveSignatureActeTraitement.existePreuveAvantSignature(idDocumentMentions)) {
+			throw new BusinessException(BusinessExceptionCode.PREUVE_AVANT_SIGNATURE_EN_ATTENTE, idDocumentMentions);
+		}
+	}
+
+	@Scheduled(fixedDelayString = "${signature.preuve-avant-signature.journal.periode-reprise:PT1M}")
+	public void reprendre() {
+		// Exécuté par le thread de transfert : aucun transfert n'est en cours pendant la restauration
+		executor.execute(this::restaurerTransfertsInterrompus);
+		try (DirectoryStream<Path> fichiers = Files.newDirectoryStream(repertoire, "*" + EXTENSION_EN_ATTENTE)) {
+			fichiers.forEach(fichier -> planifierTransfert(getIdDocumentMentions(fichier, EXTENSION_EN_ATTENTE)));
+		} catch (IOException e) {
+			log.error("Impossible de parcourir le journal des preuves pré-signature {}", repertoire, e);
+		}
+	}
+
+	private void restaurerTransfertsInterrompus() {
+		// Un transfert interrompu par un arrêt, ou dont la restauration a échoué, redevient une preuve en attente
+		try (DirectoryStream<Path> fichiers = Files.newDirectoryStream(repertoire, "*" + EXTENSION_EN_TRANSFERT)) {
+			for (Path fichier : fichiers) {
+				final UUID idDocumentMentions = getIdDocumentMentions(fichier, EXTENSION_EN_TRANSFERT);
+				restaurer(idDocumentMentions);
+				planifierTransfert(idDocumentMentions);
+			}
+		} catch (IOException e) {
+			log.error("Impossible de restaurer les transferts interrompus du journal des preuves pré-signature {}", repertoire, e);
+		}
+	}
+
+	private CompletableFuture<Void> planifierTransfert(final UUID idDocumentMentions) {
+		final CompletableFuture<Void> transfert = new CompletableFuture<>();
+		final CompletableFuture<Void> transfertExistant = transfertsEnCours.putIfAbsent(idDocumentMentions, transfert);
+		if (transfertExistant != null) {
+			return transfertExistant;
+		}
+		executor.execute(() -> {
+			try {
+				transferer(idDocumentMentions);
+				transfert.complete(null);
+			} catch (RuntimeException e) {
+				log.error("Échec du transfert de la preuve pré-signature du document {}, nouvelle tentative à la prochaine reprise", idDocumentMentions, e);
+				transfert.completeExceptionally(e);
+			} finally {
+				transfertsEnCours.remove(idDocumentMentions, transfert);
+			}
+		});
+		return transfert;
+	}
+
+	private void transferer(final UUID idDocumentMentions) {
+		final Path enTransfert = getFichierEnTransfert(idDocumentMentions);
+		try {
+			// Une preuve journalisée de nouveau pendant le transfert est reprise par le tour suivant
+			while (Files.exists(getFichierEnAttente(idDocumentMentions))) {
+				Files.move(getFichierEnAttente(idDocumentMentions), enTransfert, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+				try {
+					preuveSignatureActeTraitement.enregistrerAvantSignature(idDocumentMentions, dechiffrer(idDocumentMentions, Files.readAllBytes(enTransfert)));
+				} catch (RuntimeException e) {
+					// La preuve redevient en attente pour être reprise par le balayage périodique ou par l'intégration
+					restaurer(idDocumentMentions);
+					throw e;
+				}
+				Files.delete(enTransfert);
+			}
+		} catch (NoSuchFileException e) {
+			// Preuve déjà transférée entre le test d'existence et le renommage
+		} catch (IOException e) {
+			throw new TechnicalException(TechnicalExceptionCode.TECH_JOURNAL_PREUVE_AVANT_SIGNATURE, idDocumentMentions, e);
+		}
+	}
+
+	private void restaurer(final UUID idDocumentMentions) throws IOException {
+		final Path enTransfert = getFichierEnTransfert(idDocumentMentions);
+		try {
+			// Une preuve plus récente journalisée entre-temps remplace celle qui n'a pas pu être transférée
+			if (Files.exists(getFichierEnAttente(idDocumentMentions))) {
+				Files.delete(enTransfert);
+			} else {
+				Files.move(enTransfert, getFichierEnAttente(idDocumentMentions), StandardCopyOption.ATOMIC_MOVE);
+			}
+		} catch (NoSuchFileException e) {
+			// Déjà restaurée
+		}
+	}
+
+	private byte[] chiffrer(final UUID idDocumentMentions, final byte[] preuve) {
+		try {
+			final byte[] iv = new byte[TAILLE_IV];
+			aleatoire.nextBytes(iv);
+			final Cipher chiffrement = Cipher.getInstance(ALGORITHME_CHIFFREMENT);
+			chiffrement.init(Cipher.ENCRYPT_MODE, cle, new GCMParameterSpec(TAILLE_TAG_BITS, iv));
+			// L'identifiant du document est authentifié : une preuve ne peut pas être rejouée sous un autre document
+			chiffrement.updateAAD(idDocumentMentions.toString().getBytes(StandardCharsets.UTF_8));
+			return ByteBuffer.allocate(TAILLE_IV + chiffrement.getOutputSize(preuve.length))
+							 .put(iv)
+							 .put(chiffrement.doFinal(preuve))
+							 .array();
+		} catch (GeneralSecurityException e) {
+			throw new TechnicalException(TechnicalExceptionCode.TECH_JOURNAL_PREUVE_AVANT_SIGNATURE, idDocumentMentions, e);
+		}
+	}
+
+	private byte[] dechiffrer(final UUID idDocumentMentions, final byte[] contenu) {
+		try {
+			final Cipher chiffrement = Cipher.getInstance(ALGORITHME_CHIFFREMENT);
+			chiffrement.init(Cipher.DECRYPT_MODE, cle, new GCMParameterSpec(TAILLE_TAG_BITS, contenu, 0, TAILLE_IV));
+			chiffrement.updateAAD(idDocumentMentions.toString().getBytes(StandardCharsets.UTF_8));
+			return chiffrement.doFinal(contenu, TAILLE_IV, contenu.length - TAILLE_IV);
+		} catch (GeneralSecurityException e) {
+			throw new TechnicalException(TechnicalExceptionCode.TECH_JOURNAL_PREUVE_AVANT_SIGNATURE, idDocumentMentions, e);
+		}
+	}
+
+	private Path getFichierEnAttente(final UUID idDocumentMentions) {
+		return repertoire.resolve(idDocumentMentions + EXTENSION_EN_ATTENTE);
+	}
+
+	private Path getFichierEnTransfert(final UUID idDocumentMentions) {
+		return repertoire.resolve(idDocumentMentions + EXTENSION_EN_TRANSFERT);
+	}
+
+	private static UUID getIdDocumentMentions(final Path fichier, final String extension) {
+		final String nom = fichier.getFileName().toString();
+		return UUID.fromString(nom.substring(0, nom.length() - extension.length()));
+	}
+
+	private static void attendre(final CompletableFuture<Void> transfert) {
+		try {
+			transfert.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw e;
+		}
+	}
+}
@@ -0,0 +1,67 @@
+package fr.gouv.diplomatie.rece.etatcivil.adapters.rest.utils;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * Exécute en parallèle, sur des threads virtuels, des lectures indépendantes nécessaires à une même réponse. Les lectures
+ * ne doivent dépendre ni de la transaction ni du contexte de sécurité de la requête, qui ne sont pas propagés.
+ * <p>
+ * Les threads virtuels ({@link Thread#ofVirtual()}) imposent une exécution en Java 21 ou plus.
+ */
+@Component
+public class LecturesParalleles {
+
+	private ExecutorService executor;
+
+	@PostConstruct
+	void initialiser() {
+		executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("lecture-parallele-", 0).factory());
+	}
+
+	@PreDestroy
+	void arreter() {
+		executor.shutdownNow();
+	}
+
+	public <A, B, R> R combiner(final Supplier<A> premiereLecture, final Supplier<B> secondeLecture, final BiFunction<A, B, R> combinaison) {
+		// La seconde lecture est faite par le thread de la requête : un seul thread virtuel par appel
+		final Future<A> premiere = executor.submit(premiereLecture::get);
+		final B seconde;
+		try {
+			seconde = secondeLecture.get();
+		} catch (RuntimeException e) {
+			// Annulation avec interruption du thread virtuel de la première lecture
+			premiere.cancel(true);
+			throw e;
+		}
+		return combinaison.apply(attendre(premiere), seconde);
+	}
+
+	private static <T> T attendre(final Future<T> lecture) {
+		try {
+			return lecture.get();
+		} catch (InterruptedException e) {
+			lecture.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		} catch (ExecutionException e) {
+			// On restitue l'exception d'origine pour que le gestionnaire global la traite comme un appel direct
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			if (e.getCause() instanceof Error cause) {
+				throw cause;
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+}
@@ -0,0 +1,10 @@
+package fr.gouv.diplomatie.rece.etatcivil.application.ports.out;
+
+import fr.gouv.diplomatie.rece.etatcivil.domain.repertoirecivil.mention.TypeMention;
+
+import java.util.List;
+
+public interface LoadNomenclaturePort {
+
+	List<TypeMention> getTypesMention();
+}
@@ -0,0 +1,15 @@
+package fr.gouv.diplomatie.rece.etatcivil.application.ports.out;
+
+import fr.gouv.diplomatie.rece.etatcivil.domain.repertoirecivil.acte.PageActeImage;
+
+import java.util.UUID;
+
+public interface LoadPageActeImagePort {
+
+	/**
+	 * Charge une seule page de l'image de l'acte, sans les autres pages.
+	 *
+	 * @return la page, ou null si l'acte n'a pas d'image à ce numéro
+	 */
+	PageActeImage getPageActeImage(UUID idActe, int numeroPage);
+}
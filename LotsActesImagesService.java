@@ -0,0 +1,119 @@
+package fr.gouv.diplomatie.rece.etatcivil.application.services;
+
+import fr.gouv.diplomatie.rece.commun.exceptions.BusinessException;
+import fr.gouv.diplomatie.rece.etatcivil.application.ports.in.ActeTraitement;
+import fr.gouv.diplomatie.rece.etatcivil.application.ports.in.LotsActesImagesTraitement;
+import fr.gouv.diplomatie.rece.etatcivil.domain.enums.BusinessExceptionCode;
+import fr.gouv.diplomatie.rece.etatcivil.domain.enums.NatureActe;
+import fr.gouv.diplomatie.rece.etatcivil.domain.repertoirecivil.acte.ActeImage;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Flux des actes images à reprendre, paginé par acte : chaque lot contient toutes les images de ses actes, et la page
+ * suivante reprend après le dernier acte renvoyé. Le lot suivant est préchargé en tâche de fond pendant que le
+ * consommateur traite le lot courant.
+ */
+@RequiredArgsConstructor
+@Service
+@Slf4j
+public class LotsActesImagesService implements LotsActesImagesTraitement {
+
+	private final ActeTraitement acteTraitement;
+	private final Clock clock;
+
+	private final Map<CleLot, LotPrecharge> lotsPrecharges = new ConcurrentHashMap<>();
+
+	@Value("${reprise.actes-images.nombre-max-actes-lot:500}")
+	private int nombreMaxActesLot;
+	@Value("${reprise.actes-images.nombre-max-lots-precharges:8}")
+	private int nombreMaxLotsPrecharges;
+	@Value("${reprise.actes-images.duree-vie-lot-precharge:PT1M}")
+	private Duration dureeVieLotPrecharge;
+
+	private ExecutorService executor;
+
+	@PostConstruct
+	void initialiser() {
+		executor = Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "prechargement-actes-images");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	@PreDestroy
+	void arreter() {
+		executor.shutdownNow();
+	}
+
+	/**
+	 * @param curseur identifiant du dernier acte du lot précédent, null pour le premier lot
+	 * @return les images des {@code nombreActes} actes suivant le curseur, triées par acte
+	 */
+	@Override
+	public List<ActeImage> getLotActesImages(final NatureActe natureActe, final UUID curseur, final int nombreActes) {
+		if (nombreActes < 1 || nombreActes > nombreMaxActesLot) {
+			throw new BusinessException(BusinessExceptionCode.NOMBRE_ACTES_LOT_INVALIDE, nombreActes, nombreMaxActesLot);
+		}
+		final CleLot cle = new CleLot(natureActe, curseur, nombreActes);
+		final LotPrecharge lotPrecharge = lotsPrecharges.remove(cle);
+		List<ActeImage> lot = null;
+		if (lotPrecharge != null) {
+			try {
+				lot = lotPrecharge.images().get();
+			} catch (ExecutionException e) {
+				log.warn("Échec du préchargement du lot d'actes images {}, rechargement", cle, e.getCause());
+			} catch (CancellationException e) {
+				log.debug("Préchargement du lot d'actes images {} annulé, rechargement", cle);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException(e);
+			}
+		}
+		if (lot == null) {
+			lot = acteTraitement.getActesImagesApres(natureActe, curseur, nombreActes);
+		}
+
+		// Les lots préchargés jamais demandés (consommateur arrêté) sont annulés passé leur durée de vie, pour ne pas
+		// occuper le thread de préchargement avec un lot que personne ne lira
+		final Instant maintenant = Instant.now(clock);
+		lotsPrecharges.values().removeIf(precharge -> {
+			final boolean expire = precharge.dateCreation().plus(dureeVieLotPrecharge).isBefore(maintenant);
+			if (expire) {
+				precharge.images().cancel(true);
+			}
+			return expire;
+		});
+		if (!lot.isEmpty() && lotsPrecharges.size() < nombreMaxLotsPrecharges) {
+			final CleLot cleSuivante = new CleLot(natureActe, lot.get(lot.size() - 1).getIdActe(), nombreActes);
+			lotsPrecharges.computeIfAbsent(cleSuivante, c -> new LotPrecharge(
+					executor.submit(() -> acteTraitement.getActesImagesApres(c.natureActe(), c.curseur(), c.nombreActes())),
+					maintenant));
+		}
+		return lot;
+	}
+
+	private record CleLot(NatureActe natureActe, UUID curseur, int nombreActes) {
+	}
+
+	private record LotPrecharge(Future<List<ActeImage>> images, Instant dateCreation) {
+	}
+}
@@ -0,0 +1,12 @@
+package fr.gouv.diplomatie.rece.etatcivil.application.ports.in;
+
+import fr.gouv.diplomatie.rece.etatcivil.domain.enums.NatureActe;
+import fr.gouv.diplomatie.rece.etatcivil.domain.repertoirecivil.acte.ActeImage;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface LotsActesImagesTraitement {
+
+	List<ActeImage> getLotActesImages(NatureActe natureActe, UUID curseur, int nombreActes);
+}
@@ -0,0 +1,89 @@
+package fr.gouv.diplomatie.rece.etatcivil.application.services;
+
+import fr.gouv.diplomatie.rece.commun.exceptions.BusinessException;
+import fr.gouv.diplomatie.rece.commun.exceptions.TechnicalException;
+import fr.gouv.diplomatie.rece.etatcivil.domain.enums.TypeDocumentComposition;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.function.Supplier;
+
+/**
+ * Mesure de chaque étape de la signature des mentions ultérieures : un timer avec histogramme et un compteur de résultats
+ * par étape, étiquetés par type de document et code d'erreur, exposés par l'actuator. Ils permettent de distinguer une
+ * lenteur de l'horodatage, de la composition ou de la base.
+ */
+@RequiredArgsConstructor
+@Service
+public class MesureEtapesSignatureMentions {
+
+	public enum EtapeSignatureMentions {
+		VERIFICATION_DROITS,
+		VALORISATION_MENTIONS,
+		COMPOSITION_PDF,
+		PREUVE_AVANT_SIGNATURE,
+		AUGMENTATION_PADES_LT,
+		VALIDATION_HORODATAGE,
+		STOCKAGE_SWIFT
+	}
+
+	private static final String NOM_TIMER = "rece.signature.mentions.etape";
+	private static final String NOM_COMPTEUR = "rece.signature.mentions.etape.resultat";
+	private static final String SUCCES = "succes";
+	private static final String ERREUR = "erreur";
+	private static final String AUCUN_CODE = "aucun";
+
+	private final MeterRegistry meterRegistry;
+
+	public <T> T mesurer(final EtapeSignatureMentions etape, final TypeDocumentComposition typeDocument, final Supplier<T> traitement) {
+		final Timer.Sample debut = Timer.start(meterRegistry);
+		try {
+			final T resultat = traitement.get();
+			enregistrer(debut, etape, typeDocument, SUCCES, AUCUN_CODE);
+			return resultat;
+		} catch (RuntimeException e) {
+			enregistrer(debut, etape, typeDocument, ERREUR, getCodeErreur(e));
+			throw e;
+		}
+	}
+
+	public void mesurer(final EtapeSignatureMentions etape, final TypeDocumentComposition typeDocument, final Runnable traitement) {
+		mesurer(etape, typeDocument, () -> {
+			traitement.run();
+			return null;
+		});
+	}
+
+	private void enregistrer(final Timer.Sample debut, final EtapeSignatureMentions etape, final TypeDocumentComposition typeDocument,
+							 final String resultat, final String codeErreur) {
+		final Tags tags = Tags.of("etape", etape.name(),
+								  "typeDocument", typeDocument.name(),
+								  "resultat", resultat,
+								  "codeErreur", codeErreur);
+		debut.stop(Timer.builder(NOM_TIMER)
+						.description("Durée d'une étape de la signature des mentions ultérieures")
+						.tags(tags)
+						.publishPercentileHistogram()
+						.register(meterRegistry));
+		Counter.builder(NOM_COMPTEUR)
+			   .description("Résultats d'une étape de la signature des mentions ultérieures")
+			   .tags(tags)
+			   .register(meterRegistry)
+			   .increment();
+	}
+
+	private static String getCodeErreur(final RuntimeException e) {
+		// Les codes d'erreur sont en nombre fini : la cardinalité des étiquettes reste bornée
+		if (e instanceof BusinessException businessException) {
+			return businessException.getCode();
+		}
+		if (e instanceof TechnicalException technicalException) {
+			return technicalException.getCode();
+		}
+		return e.getClass().getSimpleName();
+	}
+}
@@ -0,0 +1,69 @@
+package fr.gouv.diplomatie.rece.etatcivil.application.services;
+
+import fr.gouv.diplomatie.rece.etatcivil.application.ports.out.LoadNomenclaturePort;
+import fr.gouv.diplomatie.rece.etatcivil.domain.repertoirecivil.mention.TypeMention;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Instantané immuable des types de mention indexés par identifiant, rechargé périodiquement et publié de façon atomique.
+ * La mise à jour des mentions valide et résout le type de chaque mention reçue contre cet instantané, sans relire la
+ * table type_mention. Un identifiant absent de l'instantané provoque un rechargement avant d'être refusé : un type de
+ * mention ajouté en base est accepté sans attendre le rechargement périodique.
+ */
+@RequiredArgsConstructor
+@Service
+@Slf4j
+public class NomenclatureService {
+
+	private final LoadNomenclaturePort loadNomenclaturePort;
+
+	private final AtomicReference<Map<UUID, TypeMention>> typesMention = new AtomicReference<>();
+
+	public Optional<TypeMention> getTypeMention(final UUID idTypeMention) {
+		final Map<UUID, TypeMention> courants = getTypesMention();
+		final TypeMention typeMention = courants.get(idTypeMention);
+		if (typeMention != null) {
+			return Optional.of(typeMention);
+		}
+		return Optional.ofNullable(rechargerSiInchange(courants).get(idTypeMention));
+	}
+
+	@Scheduled(fixedDelayString = "${nomenclature.periode-rechargement:PT1H}", initialDelayString = "${nomenclature.periode-rechargement:PT1H}")
+	public synchronized void recharger() {
+		final Map<UUID, TypeMention> nouveaux = loadNomenclaturePort.getTypesMention().stream()
+																	.collect(Collectors.toUnmodifiableMap(TypeMention::getIdTypeMention, Function.identity()));
+		typesMention.set(nouveaux);
+		log.info("Nomenclature chargée : {} types de mention", nouveaux.size());
+	}
+
+	private synchronized Map<UUID, TypeMention> rechargerSiInchange(final Map<UUID, TypeMention> lus) {
+		// Des absences simultanées ne provoquent qu'un rechargement : les suivantes trouvent l'instantané déjà remplacé
+		if (typesMention.get() == lus) {
+			recharger();
+		}
+		return typesMention.get();
+	}
+
+	private Map<UUID, TypeMention> getTypesMention() {
+		Map<UUID, TypeMention> courants = typesMention.get();
+		if (courants == null) {
+			synchronized (this) {
+				if (typesMention.get() == null) {
+					recharger();
+				}
+			}
+			courants = typesMention.get();
+		}
+		return courants;
+	}
+}
@@ -0,0 +1,7 @@
+package fr.gouv.diplomatie.rece.etatcivil.domain.repertoirecivil.acte;
+
+/**
+ * Une page de l'image d'un acte, adressable individuellement.
+ */
+public record PageActeImage(int numeroPage, String typeMime, byte[] contenu) {
+}
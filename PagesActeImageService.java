@@ -0,0 +1,119 @@
+package fr.gouv.diplomatie.rece.etatcivil.application.services;
+
+import fr.gouv.diplomatie.rece.commun.exceptions.BusinessException;
+import fr.gouv.diplomatie.rece.commun.exceptions.TechnicalException;
+import fr.gouv.diplomatie.rece.etatcivil.application.ports.in.ActeTraitement;
+import fr.gouv.diplomatie.rece.etatcivil.application.ports.in.PagesActeImageTraitement;
+import fr.gouv.diplomatie.rece.etatcivil.application.ports.out.LoadPageActeImagePort;
+import fr.gouv.diplomatie.rece.etatcivil.domain.enums.BusinessExceptionCode;
+import fr.gouv.diplomatie.rece.etatcivil.domain.enums.TechnicalExceptionCode;
+import fr.gouv.diplomatie.rece.etatcivil.domain.repertoirecivil.acte.PageActeImage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Consultation page par page de l'image d'un acte. La miniature basse résolution d'une page est générée une seule fois
+ * puis conservée dans un cache borné en octets, partagé entre agents : les droits de l'agent sur l'acte sont contrôlés
+ * avant toute lecture, comme pour l'image complète.
+ */
+@RequiredArgsConstructor
+@Service
+public class PagesActeImageService implements PagesActeImageTraitement {
+
+	private static final String TYPE_MIME_MINIATURE = "image/jpeg";
+
+	private final LoadPageActeImagePort loadPageActeImagePort;
+	private final ActeTraitement acteTraitement;
+
+	private final Map<ClePage, PageActeImage> miniatures = new LinkedHashMap<>(16, 0.75f, true);
+	private long tailleMiniatures;
+
+	@Value("${acte.image.miniature.largeur:300}")
+	private int largeurMiniature;
+	@Value("${acte.image.miniature.cache.taille-max-octets:33554432}")
+	private long tailleMaxMiniatures;
+
+	@Override
+	public void controlerDroitsConsultation(final UUID idActe, final String idArobas) {
+		acteTraitement.controlerDroitsConsultationActe(idActe, idArobas);
+	}
+
+	@Override
+	public PageActeImage getPageActeImage(final UUID idActe, final int numeroPage, final String idArobas) {
+		controlerDroitsConsultation(idActe, idArobas);
+		return chargerPage(idActe, numeroPage);
+	}
+
+	@Override
+	public PageActeImage getMiniaturePageActeImage(final UUID idActe, final int numeroPage, final String idArobas) {
+		controlerDroitsConsultation(idActe, idArobas);
+
+		final ClePage cle = new ClePage(idActe, numeroPage);
+		synchronized (miniatures) {
+			final PageActeImage miniature = miniatures.get(cle);
+			if (miniature != null) {
+				return miniature;
+			}
+		}
+
+		final PageActeImage miniature = genererMiniature(chargerPage(idActe, numeroPage));
+		synchronized (miniatures) {
+			if (miniatures.put(cle, miniature) == null) {
+				tailleMiniatures += miniature.contenu().length;
+			}
+			final Iterator<PageActeImage> iterateur = miniatures.values().iterator();
+			while (tailleMiniatures > tailleMaxMiniatures && iterateur.hasNext()) {
+				tailleMiniatures -= iterateur.next().contenu().length;
+				iterateur.remove();
+			}
+		}
+		return miniature;
+	}
+
+	private PageActeImage chargerPage(final UUID idActe, final int numeroPage) {
+		final PageActeImage page = loadPageActeImagePort.getPageActeImage(idActe, numeroPage);
+		if (page == null) {
+			throw new BusinessException(BusinessExceptionCode.PAGE_ACTE_IMAGE_INEXISTANTE, idActe, numeroPage);
+		}
+		return page;
+	}
+
+	private PageActeImage genererMiniature(final PageActeImage page) {
+		try {
+			final BufferedImage image = ImageIO.read(new ByteArrayInputStream(page.contenu()));
+			if (image == null) {
+				throw new TechnicalException(TechnicalExceptionCode.TECH_FORMAT_IMAGE_NON_SUPPORTE, page.typeMime());
+			}
+			// Pas d'agrandissement d'une image déjà plus petite que la miniature
+			final int largeur = Math.min(largeurMiniature, image.getWidth());
+			final int hauteur = Math.max(1, image.getHeight() * largeur / image.getWidth());
+			final BufferedImage miniature = new BufferedImage(largeur, hauteur, BufferedImage.TYPE_INT_RGB);
+			final Graphics2D graphics = miniature.createGraphics();
+			graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			graphics.drawImage(image, 0, 0, largeur, hauteur, null);
+			graphics.dispose();
+
+			final ByteArrayOutputStream contenu = new ByteArrayOutputStream();
+			ImageIO.write(miniature, "jpg", contenu);
+			return new PageActeImage(page.numeroPage(), TYPE_MIME_MINIATURE, contenu.toByteArray());
+		} catch (IOException e) {
+			throw new TechnicalException(TechnicalExceptionCode.TECH_FORMAT_IMAGE_NON_SUPPORTE, page.typeMime(), e);
+		}
+	}
+
+	private record ClePage(UUID idActe, int numeroPage) {
+	}
+}
@@ -0,0 +1,14 @@
+package fr.gouv.diplomatie.rece.etatcivil.application.ports.in;
+
+import fr.gouv.diplomatie.rece.etatcivil.domain.repertoirecivil.acte.PageActeImage;
+
+import java.util.UUID;
+
+public interface PagesActeImageTraitement {
+
+	void controlerDroitsConsultation(UUID idActe, String idArobas);
+
+	PageActeImage getPageActeImage(UUID idActe, int numeroPage, String idArobas);
+
+	PageActeImage getMiniaturePageActeImage(UUID idActe, int numeroPage, String idArobas);
+}
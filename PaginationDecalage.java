@@ -0,0 +1,62 @@
+package fr.gouv.diplomatie.rece.etatcivil.application.ports.in.rmccommand;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Pagination exprimée par un décalage et une limite, telle que fournie par le paramètre range ("0-10") : contrairement
+ * à {@link org.springframework.data.domain.PageRequest}, le décalage n'a pas à être un multiple de la taille de page.
+ */
+public record PaginationDecalage(long decalage, int limite) implements Pageable {
+
+	public PaginationDecalage {
+		if (decalage < 0 || limite < 1) {
+			throw new IllegalArgumentException("Pagination invalide : décalage " + decalage + ", limite " + limite);
+		}
+	}
+
+	@Override
+	public int getPageNumber() {
+		return (int) (decalage / limite);
+	}
+
+	@Override
+	public int getPageSize() {
+		return limite;
+	}
+
+	@Override
+	public long getOffset() {
+		return decalage;
+	}
+
+	@Override
+	public Sort getSort() {
+		return Sort.unsorted();
+	}
+
+	@Override
+	public Pageable next() {
+		return new PaginationDecalage(decalage + limite, limite);
+	}
+
+	@Override
+	public Pageable previousOrFirst() {
+		return new PaginationDecalage(Math.max(0, decalage - limite), limite);
+	}
+
+	@Override
+	public Pageable first() {
+		return new PaginationDecalage(0, limite);
+	}
+
+	@Override
+	public Pageable withPage(final int numeroPage) {
+		return new PaginationDecalage((long) numeroPage * limite, limite);
+	}
+
+	@Override
+	public boolean hasPrevious() {
+		return decalage > 0;
+	}
+}
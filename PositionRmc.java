@@ -0,0 +1,50 @@
+package fr.gouv.diplomatie.rece.etatcivil.application.ports.in.rmccommand;
+
+import fr.gouv.diplomatie.rece.commun.exceptions.BusinessException;
+import fr.gouv.diplomatie.rece.etatcivil.domain.enums.BusinessExceptionCode;
+import fr.gouv.diplomatie.rece.etatcivil.domain.repertoirecivil.rmc.ResultatRmcActe;
+import org.apache.commons.lang3.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position de reprise d'une RMC en pagination par curseur (keyset) : clé de tri et identifiant du dernier acte renvoyé.
+ * La recherche suivante reprend strictement après ce couple, quel que soit le nombre de pages déjà parcourues.
+ */
+public record PositionRmc(String cleTri, UUID idActe) {
+
+	private static final String SEPARATEUR = "\u001F";
+
+	public static PositionRmc apres(final ResultatRmcActe dernierResultat) {
+		return new PositionRmc(dernierResultat.getCleTri(), dernierResultat.getIdActe());
+	}
+
+	/**
+	 * Encode la position dans un jeton opaque transmis au client.
+	 */
+	public String encoder() {
+		final String brut = StringUtils.defaultString(cleTri) + SEPARATEUR + idActe;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(brut.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Décode un jeton produit par {@link #encoder()}.
+	 *
+	 * @throws BusinessException si le jeton est mal formé : le curseur vient du client
+	 */
+	public static PositionRmc decoder(final String jeton) {
+		try {
+			final String brut = new String(Base64.getUrlDecoder().decode(jeton), StandardCharsets.UTF_8);
+			final int index = brut.lastIndexOf(SEPARATEUR);
+			if (index < 0) {
+				throw new BusinessException(BusinessExceptionCode.CURSEUR_RMC_INVALIDE, jeton);
+			}
+			return new PositionRmc(brut.substring(0, index), UUID.fromString(brut.substring(index + 1)));
+		} catch (IllegalArgumentException e) {
+			// Base64 ou identifiant d'acte mal formé
+			throw new BusinessException(BusinessExceptionCode.CURSEUR_RMC_INVALIDE, jeton, e);
+		}
+	}
+}
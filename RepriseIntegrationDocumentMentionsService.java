@@ -0,0 +1,66 @@
+package fr.gouv.diplomatie.rece.etatcivil.application.services;
+
+import fr.gouv.diplomatie.rece.etatcivil.application.ports.out.IntegrationDocumentMentionsPort;
+import fr.gouv.diplomatie.rece.etatcivil.application.ports.out.LoadDocumentMentionsPort;
+import fr.gouv.diplomatie.rece.etatcivil.domain.enums.StatutDocumentMentions;
+import fr.gouv.diplomatie.rece.etatcivil.domain.repertoirecivil.mention.DocumentMentions;
+import fr.gouv.diplomatie.rece.etatcivil.domain.repertoirecivil.mention.IntegrationDocumentMentions;
+import fr.gouv.diplomatie.rece.etatcivil.domain.repertoirecivil.mention.IntegrationDocumentMentions.EtapeIntegration;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Reprise des intégrations de documents mentions restées à l'étape STOCKE : le document est horodaté et stocké dans Swift
+ * mais l'issue de la mise à jour en base n'a pas été enregistrée (arrêt de l'instance, base indisponible). L'état du
+ * document mentions en base tranche : s'il porte la référence Swift de l'intégration, elle a abouti ; sinon le document
+ * stocké est orphelin, l'intégration passe en échec et l'agent peut signer de nouveau le document resté NON_SIGNE.
+ */
+@RequiredArgsConstructor
+@Service
+@Slf4j
+public class RepriseIntegrationDocumentMentionsService {
+
+	private final IntegrationDocumentMentionsPort integrationDocumentMentionsPort;
+	private final LoadDocumentMentionsPort loadDocumentMentionsPort;
+	private final Clock clock;
+
+	@Value("${signature.integration.delai-reprise:PT10M}")
+	private Duration delaiReprise;
+
+	@Scheduled(fixedDelayString = "${signature.integration.periode-reprise:PT5M}")
+	public void reprendreIntegrationsNonTerminees() {
+		// Le délai laisse aux intégrations en cours le temps de terminer leur mise à jour en base
+		final Instant dateLimite = Instant.now(clock).minus(delaiReprise);
+		for (IntegrationDocumentMentions integration : integrationDocumentMentionsPort.getIntegrationsNonTermineesAvant(dateLimite)) {
+			try {
+				reprendre(integration);
+			} catch (RuntimeException e) {
+				log.error("Reprise impossible de l'intégration du document mentions {}", integration.getIdDocumentMentions(), e);
+			}
+		}
+	}
+
+	private void reprendre(final IntegrationDocumentMentions integration) {
+		final DocumentMentions documentMentions = loadDocumentMentionsPort.getDocumentMentionsById(integration.getIdDocumentMentions());
+		final boolean integre = documentMentions != null
+								&& documentMentions.getStatutDocumentMentions() == StatutDocumentMentions.SIGNE
+								&& Objects.equals(documentMentions.getReferenceSwift(), integration.getReferenceSwift());
+		if (integre) {
+			integration.setEtape(EtapeIntegration.INTEGRE);
+		} else {
+			log.warn("Intégration du document mentions {} de l'acte {} non aboutie, document Swift orphelin {}/{}",
+					 integration.getIdDocumentMentions(), integration.getIdActe(), integration.getConteneurSwift(), integration.getReferenceSwift());
+			integration.setEtape(EtapeIntegration.ECHEC);
+		}
+		integration.setDateDerniereEtape(Instant.now(clock));
+		integrationDocumentMentionsPort.enregistrer(integration);
+	}
+}
@@ -0,0 +1,21 @@
+package fr.gouv.diplomatie.rece.etatcivil.domain.resultat;
+
+import java.util.UUID;
+
+/**
+ * Résultat, pour un acte, d'une étape de signature en lot : le document produit, ou le code de l'erreur rencontrée.
+ */
+public record ResultatSignatureLot(UUID idActe, byte[] document, String codeErreur) {
+
+	public static ResultatSignatureLot succes(UUID idActe, byte[] document) {
+		return new ResultatSignatureLot(idActe, document, null);
+	}
+
+	public static ResultatSignatureLot erreur(UUID idActe, String codeErreur) {
+		return new ResultatSignatureLot(idActe, null, codeErreur);
+	}
+
+	public boolean estEnErreur() {
+		return codeErreur != null;
+	}
+}
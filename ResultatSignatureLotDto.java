@@ -0,0 +1,6 @@
+package fr.gouv.diplomatie.rece.etatcivil.dto.signature;
+
+import java.util.UUID;
+
+public record ResultatSignatureLotDto(UUID idActe, String document, String codeErreur) {
+}
@@ -0,0 +1,168 @@
+package fr.gouv.diplomatie.rece.etatcivil.application.services;
+
+import fr.gouv.diplomatie.rece.commun.exceptions.BusinessException;
+import fr.gouv.diplomatie.rece.commun.exceptions.TechnicalException;
+import fr.gouv.diplomatie.rece.etatcivil.application.ports.in.MentionTraitement;
+import fr.gouv.diplomatie.rece.etatcivil.application.ports.in.SignatureLotMentionsTraitement;
+import fr.gouv.diplomatie.rece.etatcivil.domain.enums.BusinessExceptionCode;
+import fr.gouv.diplomatie.rece.etatcivil.domain.enums.TechnicalExceptionCode;
+import fr.gouv.diplomatie.rece.etatcivil.domain.habilitation.Utilisateur;
+import fr.gouv.diplomatie.rece.etatcivil.domain.repertoirecivil.signature.DocumentSigne;
+import fr.gouv.diplomatie.rece.etatcivil.domain.repertoirecivil.signature.Signature;
+import fr.gouv.diplomatie.rece.etatcivil.domain.resultat.ResultatSignatureLot;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Signature des mentions ultérieures sur plusieurs actes : les contrôles communs (disponibilité de la signature, droits,
+ * plage horaire) sont faits une seule fois, puis chaque acte est traité en parallèle avec un parallélisme borné.
+ * L'échec d'un acte n'interrompt pas le lot : il est reporté dans le résultat de cet acte.
+ * <p>
+ * Un lot n'a jamais plus de {@code parallelisme} actes en cours : chaque résultat est remis au consommateur dès qu'il est
+ * prêt, ce qui libère sa place pour l'acte suivant. Les documents composés ne sont donc pas tous gardés en mémoire, et
+ * la file partagée entre les lots reste bornée ; quand elle est pleine, le thread appelant traite l'acte lui-même.
+ */
+@RequiredArgsConstructor
+@Service
+@Slf4j
+public class SignatureLotMentionsService implements SignatureLotMentionsTraitement {
+
+	private final MentionTraitement mentionTraitement;
+
+	@Value("${signature.lot.parallelisme:4}")
+	private int parallelisme;
+	@Value("${signature.lot.taille-file:32}")
+	private int tailleFile;
+	@Value("${signature.lot.nombre-max-actes:100}")
+	private int nombreMaxActes;
+
+	private ThreadPoolExecutor executor;
+
+	@PostConstruct
+	void initialiser() {
+		AtomicInteger compteur = new AtomicInteger();
+		executor = new ThreadPoolExecutor(parallelisme, parallelisme, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(tailleFile), runnable -> {
+			Thread thread = new Thread(runnable, "signature-lot-" + compteur.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}, new ThreadPoolExecutor.CallerRunsPolicy());
+	}
+
+	@PreDestroy
+	void arreter() {
+		executor.shutdownNow();
+	}
+
+	@Override
+	public Utilisateur verifierPrerequisCompositionLot(final List<UUID> idsActes, final String idArobas) {
+		verifierTailleLot(idsActes);
+		return mentionTraitement.verifierPrerequisSignature(idArobas);
+	}
+
+	@Override
+	public void composerDocumentsMentionsUlterieures(final List<UUID> idsActes, final Signature signature, final Utilisateur utilisateur,
+													 final Consumer<ResultatSignatureLot> consommateur) {
+		traiterEnParallele(idsActes, idActe ->
+				ResultatSignatureLot.succes(idActe, mentionTraitement.composerDocumentMentionsUlterieuresPdf(idActe, signature, utilisateur)), consommateur);
+	}
+
+	@Override
+	public Map<UUID, ResultatSignatureLot> integrerDocumentsMentionsSignes(final Map<UUID, DocumentSigne> documentsSignes, final String idArobas) {
+		verifierTailleLot(documentsSignes.keySet());
+		final Utilisateur utilisateur = mentionTraitement.verifierPrerequisIntegration(idArobas);
+
+		final Map<UUID, ResultatSignatureLot> resultatsParActe = new HashMap<>();
+		traiterEnParallele(documentsSignes.keySet(), idActe -> {
+			mentionTraitement.integrerDocumentMentionSigne(idActe, idArobas, utilisateur, documentsSignes.get(idActe));
+			return ResultatSignatureLot.succes(idActe, null);
+		}, resultat -> resultatsParActe.put(resultat.idActe(), resultat));
+
+		// Résultats dans l'ordre de la demande
+		final Map<UUID, ResultatSignatureLot> resultats = new LinkedHashMap<>();
+		documentsSignes.keySet().forEach(idActe -> resultats.put(idActe, resultatsParActe.get(idActe)));
+		return resultats;
+	}
+
+	private void verifierTailleLot(final Collection<UUID> idsActes) {
+		if (idsActes.size() > nombreMaxActes) {
+			throw new BusinessException(BusinessExceptionCode.SIGNATURE_LOT_TROP_D_ACTES, idsActes.size(), nombreMaxActes);
+		}
+	}
+
+	/**
+	 * Remet les résultats au consommateur dans l'ordre où ils se terminent, sur le thread appelant.
+	 */
+	private void traiterEnParallele(final Collection<UUID> idsActes, final Function<UUID, ResultatSignatureLot> traitement,
+									final Consumer<ResultatSignatureLot> consommateur) {
+		final CompletionService<ResultatSignatureLot> traitements = new ExecutorCompletionService<>(executor);
+		final Iterator<UUID> actesATraiter = idsActes.iterator();
+		int nombreEnCours = 0;
+		while (nombreEnCours < parallelisme && actesATraiter.hasNext()) {
+			final UUID idActe = actesATraiter.next();
+			traitements.submit(() -> traiterActe(idActe, traitement));
+			nombreEnCours++;
+		}
+		while (nombreEnCours > 0) {
+			final ResultatSignatureLot resultat = attendreProchainResultat(traitements);
+			nombreEnCours--;
+			if (actesATraiter.hasNext()) {
+				final UUID idActe = actesATraiter.next();
+				traitements.submit(() -> traiterActe(idActe, traitement));
+				nombreEnCours++;
+			}
+			consommateur.accept(resultat);
+		}
+	}
+
+	private static ResultatSignatureLot attendreProchainResultat(final CompletionService<ResultatSignatureLot> traitements) {
+		try {
+			return traitements.take().get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		} catch (ExecutionException e) {
+			// traiterActe reporte toutes les exceptions dans le résultat : seule une Error arrive ici
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	private static ResultatSignatureLot traiterActe(final UUID idActe, final Function<UUID, ResultatSignatureLot> traitement) {
+		try {
+			return traitement.apply(idActe);
+		} catch (BusinessException e) {
+			return ResultatSignatureLot.erreur(idActe, e.getCode());
+		} catch (TechnicalException e) {
+			// Un refus du contrôle d'admission est une régulation attendue de la charge, pas une défaillance
+			if (TechnicalExceptionCode.HORODATAGE_SATURE.getCode().equals(e.getCode())) {
+				log.warn("Horodatage saturé, acte {} non signé : {}", idActe, e.getMessage());
+			} else {
+				log.error(e.getCode(), e);
+			}
+			return ResultatSignatureLot.erreur(idActe, e.getCode());
+		} catch (RuntimeException e) {
+			log.error("Erreur lors de la signature en lot de l'acte {}", idActe, e);
+			return ResultatSignatureLot.erreur(idActe, e.getClass().getSimpleName());
+		}
+	}
+}
@@ -0,0 +1,20 @@
+package fr.gouv.diplomatie.rece.etatcivil.application.ports.in;
+
+import fr.gouv.diplomatie.rece.etatcivil.domain.habilitation.Utilisateur;
+import fr.gouv.diplomatie.rece.etatcivil.domain.repertoirecivil.signature.DocumentSigne;
+import fr.gouv.diplomatie.rece.etatcivil.domain.repertoirecivil.signature.Signature;
+import fr.gouv.diplomatie.rece.etatcivil.domain.resultat.ResultatSignatureLot;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+public interface SignatureLotMentionsTraitement {
+
+	Utilisateur verifierPrerequisCompositionLot(List<UUID> idsActes, String idArobas);
+
+	void composerDocumentsMentionsUlterieures(List<UUID> idsActes, Signature signature, Utilisateur utilisateur, Consumer<ResultatSignatureLot> consommateur);
+
+	Map<UUID, ResultatSignatureLot> integrerDocumentsMentionsSignes(Map<UUID, DocumentSigne> documentsSignes, String idArobas);
+}
@@ -0,0 +1,8 @@
+package fr.gouv.diplomatie.rece.etatcivil.domain.enums;
+
+public enum StatutTravailRmc {
+	EN_ATTENTE,
+	EN_COURS,
+	TERMINE,
+	EN_ERREUR
+}
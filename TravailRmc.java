@@ -0,0 +1,59 @@
+package fr.gouv.diplomatie.rece.etatcivil.domain.repertoirecivil.rmc;
+
+import fr.gouv.diplomatie.rece.etatcivil.domain.enums.StatutTravailRmc;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Recherche multicritères exécutée en tâche de fond. Seuls les identifiants des actes trouvés sont conservés,
+ * les résultats étant rechargés page par page lors de leur consultation.
+ */
+@Getter
+public class TravailRmc {
+
+	private final UUID id;
+	private final String idArobas;
+	private final Instant dateSoumission;
+	private volatile StatutTravailRmc statut;
+	private volatile List<UUID> idsActes;
+	private volatile String codeErreur;
+	private volatile Instant dateFin;
+
+	public TravailRmc(final UUID id, final String idArobas, final Instant dateSoumission) {
+		this.id = id;
+		this.idArobas = idArobas;
+		this.dateSoumission = dateSoumission;
+		this.statut = StatutTravailRmc.EN_ATTENTE;
+		this.idsActes = List.of();
+	}
+
+	public void demarrer() {
+		this.statut = StatutTravailRmc.EN_COURS;
+	}
+
+	public void terminer(final List<UUID> idsActes, final Instant dateFin) {
+		this.idsActes = List.copyOf(idsActes);
+		this.dateFin = dateFin;
+		this.statut = StatutTravailRmc.TERMINE;
+	}
+
+	public void echouer(final String codeErreur, final Instant dateFin) {
+		this.codeErreur = codeErreur;
+		this.dateFin = dateFin;
+		this.statut = StatutTravailRmc.EN_ERREUR;
+	}
+
+	public boolean estTermine() {
+		return statut == StatutTravailRmc.TERMINE;
+	}
+
+	/**
+	 * @return vrai si le travail est terminé ou en erreur depuis avant {@code limite}
+	 */
+	public boolean estFiniAvant(final Instant limite) {
+		return (statut == StatutTravailRmc.TERMINE || statut == StatutTravailRmc.EN_ERREUR) && dateFin.isBefore(limite);
+	}
+}
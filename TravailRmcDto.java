@@ -0,0 +1,6 @@
+package fr.gouv.diplomatie.rece.etatcivil.dto.rmc;
+
+import java.util.UUID;
+
+public record TravailRmcDto(UUID idTravail, String statut, Integer nombreResultats, String codeErreur) {
+}
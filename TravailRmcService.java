@@ -0,0 +1,153 @@
+package fr.gouv.diplomatie.rece.etatcivil.application.services;
+
+import com.github.f4b6a3.uuid.UuidCreator;
+import fr.gouv.diplomatie.rece.commun.exceptions.BusinessException;
+import fr.gouv.diplomatie.rece.commun.exceptions.TechnicalException;
+import fr.gouv.diplomatie.rece.etatcivil.application.ports.in.RmcTraitement;
+import fr.gouv.diplomatie.rece.etatcivil.application.ports.in.TravailRmcTraitement;
+import fr.gouv.diplomatie.rece.etatcivil.application.ports.in.rmccommand.RmcCommand;
+import fr.gouv.diplomatie.rece.etatcivil.domain.enums.BusinessExceptionCode;
+import fr.gouv.diplomatie.rece.etatcivil.domain.enums.TechnicalExceptionCode;
+import fr.gouv.diplomatie.rece.etatcivil.domain.repertoirecivil.rmc.ResultatRmcActe;
+import fr.gouv.diplomatie.rece.etatcivil.domain.repertoirecivil.rmc.TravailRmc;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Exécution des recherches multicritères lourdes en tâche de fond : la recherche est soumise, son avancement est
+ * interrogé puis ses résultats sont consultés page par page, sans être soumis au timeout transactionnel des RMC synchrones.
+ */
+@RequiredArgsConstructor
+@Service
+@Slf4j
+public class TravailRmcService implements TravailRmcTraitement {
+
+	private final RmcTraitement rmcTraitement;
+	private final Clock clock;
+
+	private final Map<UUID, TravailRmc> travaux = new ConcurrentHashMap<>();
+
+	@Value("${rmc.travaux.nombre-threads:2}")
+	private int nombreThreads;
+	@Value("${rmc.travaux.capacite-file:20}")
+	private int capaciteFile;
+	@Value("${rmc.travaux.nombre-max-resultats:10000}")
+	private int nombreMaxResultats;
+	@Value("${rmc.travaux.taille-lot:500}")
+	private int tailleLot;
+	@Value("${rmc.travaux.duree-conservation:PT1H}")
+	private Duration dureeConservation;
+
+	private ThreadPoolExecutor executor;
+
+	@PostConstruct
+	void initialiser() {
+		AtomicInteger compteur = new AtomicInteger();
+		executor = new ThreadPoolExecutor(nombreThreads, nombreThreads, 0L, TimeUnit.MILLISECONDS,
+										  new ArrayBlockingQueue<>(capaciteFile),
+										  runnable -> {
+											  Thread thread = new Thread(runnable, "travail-rmc-" + compteur.incrementAndGet());
+											  thread.setDaemon(true);
+											  return thread;
+										  },
+										  new ThreadPoolExecutor.AbortPolicy());
+	}
+
+	@PreDestroy
+	void arreter() {
+		executor.shutdownNow();
+	}
+
+	@Override
+	public TravailRmc soumettreRmcActes(final RmcCommand rmcCommand, final String idArobas) {
+		final TravailRmc travail = new TravailRmc(UuidCreator.getShortPrefixComb(), idArobas, Instant.now(clock));
+		travaux.put(travail.getId(), travail);
+		try {
+			executor.execute(() -> executer(travail, rmcCommand));
+		} catch (RejectedExecutionException e) {
+			travaux.remove(travail.getId());
+			throw new TechnicalException(TechnicalExceptionCode.TECH_FILE_TRAVAUX_RMC_PLEINE);
+		}
+		return travail;
+	}
+
+	@Override
+	public TravailRmc getTravailRmc(final UUID idTravail, final String idArobas) {
+		final TravailRmc travail = travaux.get(idTravail);
+		// Un travail n'est visible que de l'agent qui l'a soumis
+		if (travail == null || !travail.getIdArobas().equals(idArobas)) {
+			throw new BusinessException(BusinessExceptionCode.TRAVAIL_RMC_INTROUVABLE, idTravail);
+		}
+		return travail;
+	}
+
+	@Override
+	public Page<ResultatRmcActe> getResultatsTravailRmc(final UUID idTravail, final String idArobas, final Pageable pageable) {
+		final TravailRmc travail = getTravailRmc(idTravail, idArobas);
+		if (!travail.estTermine()) {
+			throw new BusinessException(BusinessExceptionCode.TRAVAIL_RMC_NON_TERMINE, idTravail, travail.getStatut());
+		}
+
+		final List<UUID> idsActes = travail.getIdsActes();
+		final int debut = (int) Math.min(pageable.getOffset(), idsActes.size());
+		final int fin = Math.min(debut + pageable.getPageSize(), idsActes.size());
+		final List<ResultatRmcActe> resultats = debut < fin
+				? rmcTraitement.getResultatsRmcActesByIds(idsActes.subList(debut, fin), idArobas)
+				: List.of();
+		return new PageImpl<>(resultats, pageable, idsActes.size());
+	}
+
+	private void executer(final TravailRmc travail, final RmcCommand rmcCommand) {
+		travail.demarrer();
+		final List<UUID> idsActes = new ArrayList<>();
+		try {
+			rmcTraitement.exporterRmcActes(rmcCommand, travail.getIdArobas(), tailleLot, lot -> {
+				lot.forEach(resultat -> idsActes.add(resultat.getIdActe()));
+				if (idsActes.size() > nombreMaxResultats) {
+					throw new BusinessException(BusinessExceptionCode.TRAVAIL_RMC_TROP_DE_RESULTATS, travail.getId(), nombreMaxResultats);
+				}
+			});
+			travail.terminer(idsActes, Instant.now(clock));
+		} catch (BusinessException e) {
+			travail.echouer(e.getCode(), Instant.now(clock));
+		} catch (TechnicalException e) {
+			log.error(e.getCode(), e);
+			travail.echouer(e.getCode(), Instant.now(clock));
+		} catch (RuntimeException e) {
+			log.error("Erreur lors de l'exécution du travail RMC {}", travail.getId(), e);
+			travail.echouer(e.getClass().getSimpleName(), Instant.now(clock));
+		}
+	}
+
+	/**
+	 * Les travaux en attente ou en cours ne sont jamais purgés : seuls les résultats finis depuis la durée de conservation
+	 * sont oubliés.
+	 */
+	@Scheduled(fixedDelayString = "${rmc.travaux.periode-purge:PT5M}")
+	public void purgerTravauxExpires() {
+		final Instant limite = Instant.now(clock).minus(dureeConservation);
+		travaux.values().removeIf(travail -> travail.estFiniAvant(limite));
+	}
+}
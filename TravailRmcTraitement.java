@@ -0,0 +1,18 @@
+package fr.gouv.diplomatie.rece.etatcivil.application.ports.in;
+
+import fr.gouv.diplomatie.rece.etatcivil.application.ports.in.rmccommand.RmcCommand;
+import fr.gouv.diplomatie.rece.etatcivil.domain.repertoirecivil.rmc.ResultatRmcActe;
+import fr.gouv.diplomatie.rece.etatcivil.domain.repertoirecivil.rmc.TravailRmc;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.UUID;
+
+public interface TravailRmcTraitement {
+
+	TravailRmc soumettreRmcActes(RmcCommand rmcCommand, String idArobas);
+
+	TravailRmc getTravailRmc(UUID idTravail, String idArobas);
+
+	Page<ResultatRmcActe> getResultatsTravailRmc(UUID idTravail, String idArobas, Pageable pageable);
+}
@@ -0,0 +1,83 @@
+package fr.gouv.diplomatie.rece.etatcivil.application.services;
+
+import fr.gouv.diplomatie.rece.etatcivil.application.ports.in.UtilisateurCacheTraitement;
+import fr.gouv.diplomatie.rece.etatcivil.application.ports.out.LoadUtilisateursPort;
+import fr.gouv.diplomatie.rece.etatcivil.application.ports.out.UtilisateurRequetePort;
+import fr.gouv.diplomatie.rece.etatcivil.domain.habilitation.Utilisateur;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache des utilisateurs (service, adresse et droits) par idArobas.
+ * Un utilisateur est chargé au plus une fois par requête HTTP, puis conservé entre requêtes pendant une courte durée.
+ * Toute modification des habilitations d'un utilisateur doit appeler {@link #invalider(String)}. L'appelant reçoit
+ * toujours sa propre copie : une modification de l'utilisateur renvoyé n'altère pas le cache.
+ * <p>
+ * Décorateur du port {@link LoadUtilisateursPort} : déclaré {@link Primary}, c'est lui que reçoivent les services qui
+ * injectent le port. Il délègue le chargement à l'adaptateur de persistance ; Spring écarte le décorateur lui-même des
+ * candidats à l'injection de sa propre dépendance.
+ */
+@RequiredArgsConstructor
+@Primary
+@Service
+public class UtilisateurCacheService implements LoadUtilisateursPort, UtilisateurCacheTraitement {
+
+	private final LoadUtilisateursPort loadUtilisateursPort;
+	private final UtilisateurRequetePort utilisateurRequetePort;
+	private final Clock clock;
+
+	private final Map<String, EntreeCache> utilisateurs = new ConcurrentHashMap<>();
+
+	@Value("${habilitation.cache.duree-vie:PT30S}")
+	private Duration dureeVie;
+	@Value("${habilitation.cache.taille-max:2000}")
+	private int tailleMax;
+
+	@Override
+	public Utilisateur getUtilisateurByIdArobas(final String idArobas) {
+		Utilisateur utilisateur = utilisateurRequetePort.getUtilisateurRequete(idArobas);
+		if (utilisateur == null) {
+			utilisateur = getUtilisateurEnCacheOuCharger(idArobas);
+			utilisateurRequetePort.memoriserUtilisateurRequete(idArobas, utilisateur);
+		}
+		return utilisateur == null ? null : utilisateur.copie();
+	}
+
+	@Override
+	public void invalider(final String idArobas) {
+		utilisateurs.remove(idArobas);
+	}
+
+	@Override
+	public void invaliderTout() {
+		utilisateurs.clear();
+	}
+
+	private Utilisateur getUtilisateurEnCacheOuCharger(final String idArobas) {
+		final Instant maintenant = Instant.now(clock);
+		final EntreeCache entree = utilisateurs.get(idArobas);
+		if (entree != null && entree.dateExpiration().isAfter(maintenant)) {
+			return entree.utilisateur();
+		}
+
+		final Utilisateur utilisateur = loadUtilisateursPort.getUtilisateurByIdArobas(idArobas);
+		if (utilisateurs.size() >= tailleMax) {
+			utilisateurs.values().removeIf(e -> !e.dateExpiration().isAfter(maintenant));
+		}
+		if (utilisateur != null && utilisateurs.size() < tailleMax) {
+			utilisateurs.put(idArobas, new EntreeCache(utilisateur, maintenant.plus(dureeVie)));
+		}
+		return utilisateur;
+	}
+
+	private record EntreeCache(Utilisateur utilisateur, Instant dateExpiration) {
+	}
+}
@@ -0,0 +1,8 @@
+package fr.gouv.diplomatie.rece.etatcivil.application.ports.in;
+
+public interface UtilisateurCacheTraitement {
+
+	void invalider(String idArobas);
+
+	void invaliderTout();
+}
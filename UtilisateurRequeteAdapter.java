@@ -0,0 +1,34 @@
+package fr.gouv.diplomatie.rece.etatcivil.adapters.rest.utils;
+
+import fr.gouv.diplomatie.rece.etatcivil.application.ports.out.UtilisateurRequetePort;
+import fr.gouv.diplomatie.rece.etatcivil.domain.habilitation.Utilisateur;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Mémorise les utilisateurs chargés dans les attributs de la requête HTTP en cours.
+ */
+@Component
+public class UtilisateurRequeteAdapter implements UtilisateurRequetePort {
+
+	private static final String PREFIXE_ATTRIBUT_REQUETE = UtilisateurRequeteAdapter.class.getName() + ".";
+
+	@Override
+	public Utilisateur getUtilisateurRequete(final String idArobas) {
+		final RequestAttributes attributsRequete = RequestContextHolder.getRequestAttributes();
+		if (attributsRequete != null
+				&& attributsRequete.getAttribute(PREFIXE_ATTRIBUT_REQUETE + idArobas, RequestAttributes.SCOPE_REQUEST) instanceof Utilisateur utilisateur) {
+			return utilisateur;
+		}
+		return null;
+	}
+
+	@Override
+	public void memoriserUtilisateurRequete(final String idArobas, final Utilisateur utilisateur) {
+		final RequestAttributes attributsRequete = RequestContextHolder.getRequestAttributes();
+		if (attributsRequete != null) {
+			attributsRequete.setAttribute(PREFIXE_ATTRIBUT_REQUETE + idArobas, utilisateur, RequestAttributes.SCOPE_REQUEST);
+		}
+	}
+}
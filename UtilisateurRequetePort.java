@@ -0,0 +1,16 @@
+package fr.gouv.diplomatie.rece.etatcivil.application.ports.out;
+
+import fr.gouv.diplomatie.rece.etatcivil.domain.habilitation.Utilisateur;
+
+public interface UtilisateurRequetePort {
+
+	/**
+	 * @return l'utilisateur déjà chargé pendant la requête en cours, null hors requête ou s'il n'a pas encore été chargé
+	 */
+	Utilisateur getUtilisateurRequete(String idArobas);
+
+	/**
+	 * Sans effet hors requête.
+	 */
+	void memoriserUtilisateurRequete(String idArobas, Utilisateur utilisateur);
+}
@@ -1,7 +1,9 @@
 package fr.gouv.diplomatie.rece.etatcivil.adapters.rest.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import fr.gouv.diplomatie.rece.commun.bo.Result;
 import fr.gouv.diplomatie.rece.commun.constants.SecurityConstants;
+import fr.gouv.diplomatie.rece.commun.exceptions.BusinessException;
 import fr.gouv.diplomatie.rece.commun.exceptions.BusinessListException;
 import fr.gouv.diplomatie.rece.commun.exceptions.PayloadTooLargeException;
 import fr.gouv.diplomatie.rece.commun.utils.RecuperationHeaderUtils;
@@ -10,27 +12,41 @@ import fr.gouv.diplomatie.rece.etatcivil.adapters.rest.mappers.MapperActeSigneDo
 import fr.gouv.diplomatie.rece.etatcivil.adapters.rest.mappers.MapperDomainToDto;
 import fr.gouv.diplomatie.rece.etatcivil.adapters.rest.mappers.MapperDtoToDomain;
 import fr.gouv.diplomatie.rece.etatcivil.adapters.rest.utils.ControllerUtils;
+import fr.gouv.diplomatie.rece.etatcivil.adapters.rest.utils.ExecuteurParLots;
+import fr.gouv.diplomatie.rece.etatcivil.adapters.rest.utils.LecturesParalleles;
 import fr.gouv.diplomatie.rece.etatcivil.application.ports.in.ActeDoubleNumeriqueTraitement;
 import fr.gouv.diplomatie.rece.etatcivil.application.ports.in.ActeTraitement;
+import fr.gouv.diplomatie.rece.etatcivil.application.ports.in.CompositionActeTexteTraitement;
 import fr.gouv.diplomatie.rece.etatcivil.application.ports.in.DeleteAlerteActeCommand;
+import fr.gouv.diplomatie.rece.etatcivil.application.ports.in.LotsActesImagesTraitement;
 import fr.gouv.diplomatie.rece.etatcivil.application.ports.in.MentionTraitement;
+import fr.gouv.diplomatie.rece.etatcivil.application.ports.in.PagesActeImageTraitement;
 import fr.gouv.diplomatie.rece.etatcivil.application.ports.in.RmcAutoTraitement;
 import fr.gouv.diplomatie.rece.etatcivil.application.ports.in.RmcTraitement;
 import fr.gouv.diplomatie.rece.etatcivil.application.ports.in.SaisieExtraitCommand;
+import fr.gouv.diplomatie.rece.etatcivil.application.ports.in.SignatureLotMentionsTraitement;
+import fr.gouv.diplomatie.rece.etatcivil.application.ports.in.TravailRmcTraitement;
 import fr.gouv.diplomatie.rece.etatcivil.application.ports.in.projetActe.MiseAJourActeTraitement;
+import fr.gouv.diplomatie.rece.etatcivil.application.ports.in.rmccommand.PaginationDecalage;
+import fr.gouv.diplomatie.rece.etatcivil.application.ports.in.rmccommand.PositionRmc;
 import fr.gouv.diplomatie.rece.etatcivil.application.ports.in.rmccommand.RmcAutoCommand;
 import fr.gouv.diplomatie.rece.etatcivil.application.ports.in.rmccommand.RmcCommand;
+import fr.gouv.diplomatie.rece.etatcivil.domain.enums.BusinessExceptionCode;
 import fr.gouv.diplomatie.rece.etatcivil.domain.enums.NatureActe;
 import fr.gouv.diplomatie.rece.etatcivil.domain.enums.TechnicalExceptionCode;
 import fr.gouv.diplomatie.rece.etatcivil.domain.enums.TypeExtrait;
+import fr.gouv.diplomatie.rece.etatcivil.domain.habilitation.Utilisateur;
 import fr.gouv.diplomatie.rece.etatcivil.domain.repertoirecivil.acte.Acte;
 import fr.gouv.diplomatie.rece.etatcivil.domain.repertoirecivil.acte.ActeImage;
-import fr.gouv.diplomatie.rece.etatcivil.domain.repertoirecivil.acte.AlerteActe;
 import fr.gouv.diplomatie.rece.etatcivil.domain.repertoirecivil.acte.BulletinIdentification;
-import fr.gouv.diplomatie.rece.etatcivil.domain.repertoirecivil.acte.TitulaireAnalyseMarginale;
+import fr.gouv.diplomatie.rece.etatcivil.domain.repertoirecivil.acte.PageActeImage;
 import fr.gouv.diplomatie.rece.etatcivil.domain.repertoirecivil.commun.Titulaire;
 import fr.gouv.diplomatie.rece.etatcivil.domain.repertoirecivil.mention.Mention;
 import fr.gouv.diplomatie.rece.etatcivil.domain.repertoirecivil.rmc.ResultatRmcActe;
+import fr.gouv.diplomatie.rece.etatcivil.domain.repertoirecivil.rmc.TravailRmc;
+import fr.gouv.diplomatie.rece.etatcivil.domain.repertoirecivil.signature.DocumentSigne;
+import fr.gouv.diplomatie.rece.etatcivil.domain.repertoirecivil.signature.Signature;
+import fr.gouv.diplomatie.rece.etatcivil.domain.resultat.ResultatSignatureLot;
 import fr.gouv.diplomatie.rece.etatcivil.dto.repertoirecivil.acte.ActeDto;
 import fr.gouv.diplomatie.rece.etatcivil.dto.repertoirecivil.acte.ActeImageDto;
 import fr.gouv.diplomatie.rece.etatcivil.dto.repertoirecivil.acte.AlerteActeDto;
@@ -47,9 +63,12 @@ import fr.gouv.diplomatie.rece.etatcivil.dto.repertoirecivil.commun.TitulaireDto
 import fr.gouv.diplomatie.rece.etatcivil.dto.repertoirecivil.mention.MentionDto;
 import fr.gouv.diplomatie.rece.etatcivil.dto.repertoirecivil.sasisieextrait.SaisieExtraitDto;
 import fr.gouv.diplomatie.rece.etatcivil.dto.rmc.RmcActeReponseDto;
+import fr.gouv.diplomatie.rece.etatcivil.dto.rmc.TravailRmcDto;
 import fr.gouv.diplomatie.rece.etatcivil.dto.rmc.requete.RmcAutoFiltreTitulaireRequestDTO;
 import fr.gouv.diplomatie.rece.etatcivil.dto.rmc.requete.RmcRequestDto;
+import fr.gouv.diplomatie.rece.etatcivil.dto.signature.CompositionLotMentionsRecord;
 import fr.gouv.diplomatie.rece.etatcivil.dto.signature.DocumentSigneDTO;
+import fr.gouv.diplomatie.rece.etatcivil.dto.signature.ResultatSignatureLotDto;
 import fr.gouv.diplomatie.rece.etatcivil.dto.signature.SignatureCompositionRecord;
 import fr.gouv.diplomatie.rece.etatcivil.enums.StatutMention;
 import io.swagger.annotations.ApiOperation;
@@ -61,8 +80,12 @@ import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -82,15 +105,24 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Base64;
+import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @RestController
@@ -100,18 +132,36 @@ public class ActeController {
 
 	private static final String LABEL_ACCEPT_RANGE = "rmc_acte";
 
+	private static final String HEADER_CURSEUR_SUIVANT = "Curseur-Suivant";
+
+	private static final Pattern ETAG_IF_NONE_MATCH = Pattern.compile("\\*|(?:W/)?\"[^\"]*\"");
+
 	private final ControllerUtils controllerUtils;
 
+	private final ExecuteurParLots executeurParLots;
+
+	private final LecturesParalleles lecturesParalleles;
+
 	private final ActeTraitement acteTraitement;
 
+	private final CompositionActeTexteTraitement compositionActeTexteTraitement;
+
 	private final RmcTraitement rmcTraitement;
 
 	private final RmcAutoTraitement rmcAutoTraitement;
 
+	private final TravailRmcTraitement travailRmcTraitement;
+
 	private final MentionTraitement mentionTraitement;
 
+	private final SignatureLotMentionsTraitement signatureLotMentionsTraitement;
+
 	private final MiseAJourActeTraitement miseAJourActeService;
 
+	private final LotsActesImagesTraitement lotsActesImagesTraitement;
+
+	private final PagesActeImageTraitement pagesActeImageTraitement;
+
 	private final MapperDomainToDto mapperDomainToDto;
 
 	private final MapperDtoToDomain mapperDtoToDomain;
@@ -120,6 +170,17 @@ public class ActeController {
 
 	private final ActeDoubleNumeriqueTraitement acteDoubleNumeriqueTraitement;
 
+	private final ObjectMapper objectMapper;
+
+	@Value("${rmc.export.taille-lot:500}")
+	private int tailleLotExportRmc;
+	@Value("${rmc.export.nombre-max-resultats:100000}")
+	private int nombreMaxResultatsExportRmc;
+	@Value("${actes.lot.nombre-max-actes:1000}")
+	private int nombreMaxActesLot;
+	@Value("${rmc.travaux.nombre-max-resultats:10000}")
+	private int nombreMaxResultatsTravauxRmc;
+
 	@PreAuthorize("estProfilReceUser(#request)")
 	@ApiOperation(value = "Recherche un acte avec des critères")
 	@ApiResponses(value = {
@@ -128,16 +189,24 @@ public class ActeController {
 	@ResponseStatus(value = HttpStatus.OK)
 	@PostMapping(value = "/rmc")
 	public ResponseEntity<Result<List<RmcActeReponseDto>>> rechercheMultiCriteres(@RequestBody final RmcRequestDto rmcRequestDto,
-																				  @RequestParam(defaultValue = "0-10") final String range, final HttpServletRequest request) {
+																				  @RequestParam(defaultValue = "0-10") final String range,
+																				  @RequestParam(required = false) final String curseur, final HttpServletRequest request) {
 
 		Pair<Integer, Integer> offsetLimit = controllerUtils.definirOffsetLimit(range);
 		final Map<RmcCommand, BusinessListException> mapErreurActe = new HashMap<>();
 
-		RmcCommand rmcCommand = controllerUtils.buildRMCCommand(rmcRequestDto, offsetLimit.getLeft(),
+		// En pagination par curseur, seule la taille de page du range est prise en compte
+		RmcCommand rmcCommand = controllerUtils.buildRMCCommand(rmcRequestDto, curseur == null ? offsetLimit.getLeft() : 0,
 																offsetLimit.getRight());
 
 		// Pour les RMC, un code HTTP 413 est renvoyé si celle-ci est trop longue à la place d'un code 408
 		try {
+			if (curseur != null) {
+				Slice<ResultatRmcActe> rmcActes = rmcTraitement.rmcActesApres(rmcCommand, PositionRmc.decoder(curseur),
+																			  RecuperationHeaderUtils.getIdArobasFromHttpRequete(request), mapErreurActe);
+
+				return getResultResponseEntity(rmcActes, mapErreurActe);
+			}
 			Page<ResultatRmcActe> rmcActes = rmcTraitement.rmcActes(rmcCommand,
 																	RecuperationHeaderUtils.getIdArobasFromHttpRequete(request), mapErreurActe);
 
@@ -153,6 +222,89 @@ public class ActeController {
 		return null;
 	}
 
+	@PreAuthorize("estProfilReceUser(#request)")
+	@ApiOperation(value = "Soumet une recherche d'actes avec des critères pour exécution en tâche de fond")
+	@ApiResponses(value = {
+			@ApiResponse(code = 202, message = "Travail accepté", response = Result.class),
+			@ApiResponse(code = 500, message = "Erreur interne", response = Result.class),
+			@ApiResponse(code = 503, message = "Service indisponible", response = Result.class)})
+	@ResponseStatus(value = HttpStatus.ACCEPTED)
+	@PostMapping(value = "/rmc/travaux")
+	public ResponseEntity<Result<TravailRmcDto>> soumettreRechercheMultiCriteres(@RequestBody final RmcRequestDto rmcRequestDto,
+																				 final HttpServletRequest request) {
+		// Un résultat de plus que le maximum autorisé, pour que le travail détecte le dépassement au lieu de tronquer en silence
+		final RmcCommand rmcCommand = controllerUtils.buildRMCCommand(rmcRequestDto, 0, nombreMaxResultatsTravauxRmc + 1);
+		final TravailRmc travail = travailRmcTraitement.soumettreRmcActes(rmcCommand, RecuperationHeaderUtils.getIdArobasFromHttpRequete(request));
+		return new ResponseEntity<>(new Result<>(mapTravailRmc(travail)), HttpStatus.ACCEPTED);
+	}
+
+	@PreAuthorize("estProfilReceUser(#request)")
+	@ApiOperation(value = "Récupère l'état d'une recherche d'actes exécutée en tâche de fond")
+	@ApiResponses(value = {
+			@ApiResponse(code = 200, message = "OK", response = Result.class),
+			@ApiResponse(code = 400, message = "Erreur fonctionnelle", response = Result.class),
+			@ApiResponse(code = 500, message = "Erreur interne", response = Result.class)})
+	@ResponseStatus(value = HttpStatus.OK)
+	@GetMapping(value = "/rmc/travaux/{idTravail}", consumes = {MediaType.ALL_VALUE})
+	public Result<TravailRmcDto> getTravailRechercheMultiCriteres(@PathVariable final UUID idTravail,
+																  final HttpServletRequest request) {
+		return new Result<>(mapTravailRmc(travailRmcTraitement.getTravailRmc(idTravail,
+																			 RecuperationHeaderUtils.getIdArobasFromHttpRequete(request))));
+	}
+
+	@PreAuthorize("estProfilReceUser(#request)")
+	@ApiOperation(value = "Récupère une page de résultats d'une recherche d'actes exécutée en tâche de fond")
+	@ApiResponses(value = {
+			@ApiResponse(code = 200, message = "OK", response = Result.class),
+			@ApiResponse(code = 400, message = "Erreur fonctionnelle", response = Result.class),
+			@ApiResponse(code = 500, message = "Erreur interne", response = Result.class)})
+	@ResponseStatus(value = HttpStatus.OK)
+	@GetMapping(value = "/rmc/travaux/{idTravail}/resultats", consumes = {MediaType.ALL_VALUE})
+	public ResponseEntity<Result<List<RmcActeReponseDto>>> getResultatsTravailRechercheMultiCriteres(@PathVariable final UUID idTravail,
+																									 @RequestParam(defaultValue = "0-10") final String range,
+																									 final HttpServletRequest request) {
+		Pair<Integer, Integer> offsetLimit = controllerUtils.definirOffsetLimit(range);
+		Page<ResultatRmcActe> rmcActes = travailRmcTraitement.getResultatsTravailRmc(idTravail,
+																					 RecuperationHeaderUtils.getIdArobasFromHttpRequete(request),
+																					 new PaginationDecalage(offsetLimit.getLeft(), offsetLimit.getRight()));
+		return getResultResponseEntity(offsetLimit, rmcActes, Map.of());
+	}
+
+	private static TravailRmcDto mapTravailRmc(final TravailRmc travail) {
+		return new TravailRmcDto(travail.getId(), travail.getStatut().name(),
+								 travail.estTermine() ? travail.getIdsActes().size() : null, travail.getCodeErreur());
+	}
+
+	@PreAuthorize("estBatch(#request)")
+	@ApiOperation(value = "Export en flux NDJSON de l'ensemble des résultats d'une recherche d'actes avec des critères")
+	@ApiResponses(value = {
+			@ApiResponse(code = 200, message = "OK"),
+			@ApiResponse(code = 500, message = "Erreur interne", response = Result.class)})
+	@ResponseStatus(value = HttpStatus.OK)
+	@PostMapping(value = "/rmc/export", produces = {MediaType.APPLICATION_NDJSON_VALUE})
+	public ResponseEntity<StreamingResponseBody> exporterRechercheMultiCriteres(@RequestBody final RmcRequestDto rmcRequestDto,
+																				final HttpServletRequest request) {
+
+		// La limite de la commande borne l'export entier ; la taille de lot n'est que la taille de lecture en base
+		final RmcCommand rmcCommand = controllerUtils.buildRMCCommand(rmcRequestDto, 0, nombreMaxResultatsExportRmc);
+		final String idArobas = RecuperationHeaderUtils.getIdArobasFromHttpRequete(request);
+
+		// Les résultats sont lus par curseur en base et écrits lot par lot : une ligne JSON par acte, sans page ni comptage
+		final StreamingResponseBody flux = outputStream -> rmcTraitement.exporterRmcActes(rmcCommand, idArobas, tailleLotExportRmc, lot -> {
+			try {
+				for (RmcActeReponseDto rmcActeReponseDto : mapperDomainToDto.mapRmcActes(lot)) {
+					outputStream.write(objectMapper.writeValueAsBytes(rmcActeReponseDto));
+					outputStream.write('\n');
+				}
+				outputStream.flush();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(flux);
+	}
+
 	@PreAuthorize("estProfilReceUser(#request)")
 	@ApiOperation(value = "Recherche auto d'un acte avec des critères")
 	@ApiResponses(value = {
@@ -162,16 +314,23 @@ public class ActeController {
 	@PostMapping(value = "/rmcauto")
 	public ResponseEntity<Result<List<RmcActeReponseDto>>> rechercheMultiCriteresAuto(
 			@RequestBody final List<RmcAutoFiltreTitulaireRequestDTO> criteres, @RequestParam(defaultValue = "0-10") final String range,
-			final HttpServletRequest request) {
+			@RequestParam(required = false) final String curseur, final HttpServletRequest request) {
 
 		Pair<Integer, Integer> offsetLimit = controllerUtils.definirOffsetLimit(range);
 		final Map<RmcCommand, BusinessListException> mapErreurActe = new HashMap<>();
 
-		RmcAutoCommand rmcAutoCommand = mapperDtoToDomain.map(criteres, offsetLimit.getLeft(),
+		// En pagination par curseur, seule la taille de page du range est prise en compte
+		RmcAutoCommand rmcAutoCommand = mapperDtoToDomain.map(criteres, curseur == null ? offsetLimit.getLeft() : 0,
 															  offsetLimit.getRight());
 
 		// Pour les RMC, un code HTTP 413 est renvoyé si celle-ci est trop longue à la place d'un code 408
 		try {
+			if (curseur != null) {
+				Slice<ResultatRmcActe> rmcActes = rmcAutoTraitement.rechercheAutoActesApres(rmcAutoCommand, PositionRmc.decoder(curseur),
+																						   RecuperationHeaderUtils.getIdArobasFromHttpRequete(request));
+
+				return getResultResponseEntity(rmcActes, mapErreurActe);
+			}
 			Page<ResultatRmcActe> rmcActes = rmcAutoTraitement.rechercheAutoActes(rmcAutoCommand,
 																				  RecuperationHeaderUtils.getIdArobasFromHttpRequete(request));
 
@@ -199,6 +358,38 @@ public class ActeController {
 														RecuperationHeaderUtils.getIdArobasFromHttpRequete(request)));
 	}
 
+	@PreAuthorize("estProfilReceUser(#request)")
+	@ApiOperation(value = "Récupère une page de l'image d'un acte, ou sa miniature")
+	@ApiResponses(value = {
+			@ApiResponse(code = 200, message = "OK"),
+			@ApiResponse(code = 400, message = "Erreur fonctionnelle", response = Result.class),
+			@ApiResponse(code = 403, message = "Erreur de droit", response = Result.class),
+			@ApiResponse(code = 500, message = "Erreur interne", response = Result.class)})
+	@GetMapping(value = "/{id}/corps-image/pages/{numeroPage}", consumes = {MediaType.ALL_VALUE}, produces = {MediaType.ALL_VALUE})
+	public ResponseEntity<byte[]> getPageCorpsActeImageById(@PathVariable final UUID id,
+															@PathVariable final int numeroPage,
+															@RequestParam(defaultValue = "false") final boolean miniature,
+															final HttpServletRequest request) {
+		final String idArobas = RecuperationHeaderUtils.getIdArobasFromHttpRequete(request);
+		// L'image d'un acte ne change pas, mais les droits de l'agent si : le navigateur conserve la page et la fait
+		// revalider à chaque consultation, ce qui repasse par le contrôle des droits avant le 304
+		final CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+		final String etag = "\"" + id + "-" + numeroPage + (miniature ? "-miniature" : "") + "\"";
+		if (correspondAIfNoneMatch(request, etag)) {
+			pagesActeImageTraitement.controlerDroitsConsultation(id, idArobas);
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+		}
+		final PageActeImage page = miniature
+				? pagesActeImageTraitement.getMiniaturePageActeImage(id, numeroPage, idArobas)
+				: pagesActeImageTraitement.getPageActeImage(id, numeroPage, idArobas);
+		return ResponseEntity.ok()
+							 .contentType(MediaType.parseMediaType(page.typeMime()))
+							 .contentLength(page.contenu().length)
+							 .eTag(etag)
+							 .cacheControl(cacheControl)
+							 .body(page.contenu());
+	}
+
 	@PreAuthorize("estProfilReceUser(#request)")
 	@ApiOperation(value = "Récupère les données pour générer un acte texte PDF")
 	@ApiResponses(value = {
@@ -209,9 +400,9 @@ public class ActeController {
 	public ResponseEntity<Result<String>> getDonneesPourCompositionActeTexteById(@PathVariable final String id,
 																				 final HttpServletRequest request) {
 
-		String acteTexteJson = acteTraitement.getCorpsActeTexte(UUID.fromString(id),
-																RecuperationHeaderUtils.getIdArobasFromHttpRequete(request),
-																false);
+		String acteTexteJson = compositionActeTexteTraitement.getCorpsActeTexte(UUID.fromString(id),
+																				RecuperationHeaderUtils.getIdArobasFromHttpRequete(request),
+																				false);
 
 		return new ResponseEntity<>(new Result<>(acteTexteJson), HttpStatus.OK);
 	}
@@ -226,8 +417,8 @@ public class ActeController {
 	public ResponseEntity<Result<String>> getDonneesPourCompositionActeTexteMisAJourById(@PathVariable final String id,
 																						 final HttpServletRequest request) {
 
-		String acteTexteJson = acteTraitement.getCorpsActeTexte(UUID.fromString(id),
-																RecuperationHeaderUtils.getIdArobasFromHttpRequete(request), true);
+		String acteTexteJson = compositionActeTexteTraitement.getCorpsActeTexte(UUID.fromString(id),
+																				RecuperationHeaderUtils.getIdArobasFromHttpRequete(request), true);
 
 		return new ResponseEntity<>(new Result<>(acteTexteJson), HttpStatus.OK);
 	}
@@ -241,13 +432,14 @@ public class ActeController {
 	@GetMapping(value = "/{id}/donnees-pour-composition-acte-repris", consumes = {MediaType.ALL_VALUE})
 	public ResponseEntity<Result<String>> getDonneesPourCompositionActeReprisById(@PathVariable final String id,
 																				  final HttpServletRequest request) {
-		final String acteTexteJson = acteTraitement.getActeReprisTexte(UUID.fromString(id),
-																	   RecuperationHeaderUtils.getIdArobasFromHttpRequete(request));
+		final String acteTexteJson = compositionActeTexteTraitement.getActeReprisTexte(UUID.fromString(id),
+																					   RecuperationHeaderUtils.getIdArobasFromHttpRequete(request));
 		return new ResponseEntity<>(new Result<>(acteTexteJson), HttpStatus.OK);
 	}
 
-	private ResponseEntity<Result<InputStreamResource>> getResponseEntityForInputStream(final byte[] corps) {
+	private ResponseEntity<Result<InputStreamResource>> getResponseEntityForInputStream(final byte[] corps, final String etag) {
 		HttpHeaders responseHeaders = new HttpHeaders();
+		responseHeaders.setETag(etag);
 		InputStream inputStream = new ByteArrayInputStream(corps);
 		InputStreamResource inputStreamResource = new InputStreamResource(inputStream);
 
@@ -262,6 +454,22 @@ public class ActeController {
 							 .body(new Result<>(inputStreamResource));
 	}
 
+	private ResponseEntity<Resource> getResponseEntityForResource(final Resource document, final String etag) {
+		// Le corps est copié par blocs depuis la ressource vers la réponse ; une ressource de taille connue permet
+		// à Spring de servir les en-têtes Range par plages d'octets (206 Partial Content)
+		HttpHeaders responseHeaders = new HttpHeaders();
+		responseHeaders.setContentType(MediaType.APPLICATION_PDF);
+		responseHeaders.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+		responseHeaders.setETag(etag);
+		responseHeaders.setContentDisposition(ContentDisposition.builder("attachment")
+																.filename("acte.pdf")
+																.build());
+
+		return ResponseEntity.ok()
+							 .headers(responseHeaders)
+							 .body(document);
+	}
+
 
 	@PreAuthorize("estProfilReceUser(#request)")
 	@ApiOperation(value = "Récupère le bulletin d'identification d'un acte")
@@ -297,15 +505,29 @@ public class ActeController {
 																										   @RequestParam(defaultValue = "false") boolean isConsultation,
 																										   final HttpServletRequest request) {
 
-		final List<TitulaireAnalyseMarginale> titulaireAnalyseMarginales = acteTraitement.getTitulairesAnalysesMarginalesByIdActe(listIdsActe, recupereImagesEtTexte, isConsultation,
-																																  RecuperationHeaderUtils.getIdArobasFromHttpRequete(request));
-
-		final List<TitulaireAnalyseMarginaleDto> titulaireAnalyseMarginaleDtos = mapperDomainToDto.mapTitulairesAnalysesMarginales(titulaireAnalyseMarginales);
+		final String idArobas = RecuperationHeaderUtils.getIdArobasFromHttpRequete(request);
+		final List<TitulaireAnalyseMarginaleDto> titulaireAnalyseMarginaleDtos = executeurParLots.traiter(listIdsActe, lot ->
+				mapperDomainToDto.mapTitulairesAnalysesMarginales(acteTraitement.getTitulairesAnalysesMarginalesByIdActe(lot, recupereImagesEtTexte, isConsultation, idArobas)));
 
 		return new ResponseEntity<>(new Result<>(titulaireAnalyseMarginaleDtos), HttpStatus.OK);
 
 	}
 
+	@PreAuthorize("estProfilReceUser(#request)")
+	@ApiOperation(value = "Recherche en flux NDJSON les titulaires de l'analyse marginale d'un lot d'actes")
+	@ApiResponses(value = {
+			@ApiResponse(code = 200, message = "OK"),
+			@ApiResponse(code = 500, message = "Erreur interne", response = Result.class)})
+	@PostMapping(value = "/analyseMarginale/flux", consumes = {MediaType.APPLICATION_JSON_VALUE}, produces = {MediaType.APPLICATION_NDJSON_VALUE})
+	public ResponseEntity<StreamingResponseBody> getTitulaireAnalyseMarginaleByIdActeEnFlux(@RequestBody final List<UUID> listIdsActe,
+																						   @RequestParam(defaultValue = "false") boolean recupereImagesEtTexte,
+																						   @RequestParam(defaultValue = "false") boolean isConsultation,
+																						   final HttpServletRequest request) {
+		final String idArobas = RecuperationHeaderUtils.getIdArobasFromHttpRequete(request);
+		return getResponseEntityNdjsonParLots(listIdsActe, lot ->
+				mapperDomainToDto.mapTitulairesAnalysesMarginales(acteTraitement.getTitulairesAnalysesMarginalesByIdActe(lot, recupereImagesEtTexte, isConsultation, idArobas)));
+	}
+
 	@PreAuthorize("estProfilReceUser(#request) ")
 	@ApiOperation(value = "Recherche un resumé d'acte par son identifiant")
 	@ApiResponses(value = {
@@ -328,6 +550,60 @@ public class ActeController {
 		return new ResponseEntity<>(new Result<>(acteDto), HttpStatus.OK);
 	}
 
+	@PreAuthorize("estProfilReceUser(#request)")
+	@ApiOperation(value = "Recherche les resumés d'un lot d'actes par leurs identifiants")
+	@ApiResponses(value = {
+			@ApiResponse(code = 200, message = "OK", response = Result.class),
+			@ApiResponse(code = 400, message = "Erreur fonctionnelle", response = Result.class),
+			@ApiResponse(code = 403, message = "Erreur de droit", response = Result.class),
+			@ApiResponse(code = 500, message = "Erreur interne", response = Result.class)})
+	@ResponseStatus(value = HttpStatus.OK)
+	@PostMapping(value = "/resume", consumes = {MediaType.APPLICATION_JSON_VALUE})
+	public ResponseEntity<Result<Map<UUID, ActeDto>>> getResumesActesByIds(@RequestBody final List<UUID> idsActes,
+																		   @RequestParam(defaultValue = "false") boolean recupereImagesEtTexte,
+																		   @RequestParam(defaultValue = "true") boolean remplaceIdentiteTitulaireParIdentiteTitulaireAM,
+																		   final HttpServletRequest request) {
+		verifierTailleLotActes(idsActes);
+		// Chargement ensembliste des actes, puis mapping dans l'ordre de la demande
+		final Map<UUID, Acte> actes = acteTraitement.getActesResumesByIds(idsActes, recupereImagesEtTexte, true,
+																		  remplaceIdentiteTitulaireParIdentiteTitulaireAM,
+																		  RecuperationHeaderUtils.getIdArobasFromHttpRequete(request));
+		final Map<UUID, ActeDto> actesDto = new LinkedHashMap<>();
+		idsActes.stream().filter(actes::containsKey)
+				.forEach(idActe -> actesDto.computeIfAbsent(idActe, id -> mapperDomainToDto.mapActe(actes.get(id))));
+		return new ResponseEntity<>(new Result<>(actesDto), HttpStatus.OK);
+	}
+
+	@PreAuthorize("estProfilReceUser(#request)")
+	@ApiOperation(value = "Récupère les bulletins d'identification d'un lot d'actes")
+	@ApiResponses(value = {
+			@ApiResponse(code = 200, message = "OK", response = Result.class),
+			@ApiResponse(code = 400, message = "Erreur fonctionnelle", response = Result.class),
+			@ApiResponse(code = 403, message = "Erreur de droit", response = Result.class),
+			@ApiResponse(code = 500, message = "Erreur interne", response = Result.class)})
+	@ResponseStatus(value = HttpStatus.OK)
+	@PostMapping(value = "/bulletinIdentification", consumes = {MediaType.APPLICATION_JSON_VALUE})
+	public ResponseEntity<Result<Map<UUID, BulletinIdentificationDto>>> getBulletinsIdentification(@RequestBody final List<UUID> idsActes,
+																								   @RequestParam(defaultValue = "false") boolean recupereImagesEtTexte,
+																								   @RequestParam(defaultValue = "false") boolean isConsultation,
+																								   final HttpServletRequest request) {
+		verifierTailleLotActes(idsActes);
+		final Map<UUID, BulletinIdentification> bulletinsIdentification = acteTraitement.getBulletinsIdentification(idsActes, recupereImagesEtTexte, isConsultation,
+																													 RecuperationHeaderUtils.getIdArobasFromHttpRequete(request));
+		final Map<UUID, BulletinIdentificationDto> bulletinsIdentificationDto = new LinkedHashMap<>();
+		idsActes.stream().filter(bulletinsIdentification::containsKey)
+				.forEach(idActe -> bulletinsIdentificationDto.computeIfAbsent(idActe,
+																			  id -> mapperDomainToDto.mapBulletinIdentification(bulletinsIdentification.get(id))));
+		return new ResponseEntity<>(new Result<>(bulletinsIdentificationDto), HttpStatus.OK);
+	}
+
+	private void verifierTailleLotActes(final List<UUID> idsActes) {
+		// Les identifiants partent en une seule clause IN : la liste est bornée avant tout chargement
+		if (idsActes.size() > nombreMaxActesLot) {
+			throw new BusinessException(BusinessExceptionCode.NOMBRE_ACTES_LOT_INVALIDE, idsActes.size(), nombreMaxActesLot);
+		}
+	}
+
 	@PreAuthorize("estProfilReceUser(#request)")
 	@ApiOperation(value = "Récupération des données de téléverification")
 	@ApiResponses(value = {
@@ -341,8 +617,36 @@ public class ActeController {
 	public Result<List<DonneesTeleverificationDTO>> getDonneesTeleverification(@RequestBody final List<UUID> listIdsActes,
 																			   final HttpServletRequest request) {
 
-		return new Result<>(mapperDomainToDto.map(acteTraitement.getDonneesTeleverification(listIdsActes,
-																							RecuperationHeaderUtils.getIdArobasFromHttpRequete(request))));
+		final String idArobas = RecuperationHeaderUtils.getIdArobasFromHttpRequete(request);
+		return new Result<>(executeurParLots.traiter(listIdsActes, lot -> mapperDomainToDto.map(acteTraitement.getDonneesTeleverification(lot, idArobas))));
+	}
+
+	@PreAuthorize("estProfilReceUser(#request)")
+	@ApiOperation(value = "Récupération en flux NDJSON des données de téléverification")
+	@ApiResponses(value = {
+			@ApiResponse(code = 200, message = "OK"),
+			@ApiResponse(code = 500, message = "Erreur interne", response = Result.class)})
+	@PostMapping(value = "/donnees-pour-televerification/flux", consumes = {MediaType.APPLICATION_JSON_VALUE}, produces = {MediaType.APPLICATION_NDJSON_VALUE})
+	public ResponseEntity<StreamingResponseBody> getDonneesTeleverificationEnFlux(@RequestBody final List<UUID> listIdsActes,
+																				  final HttpServletRequest request) {
+		final String idArobas = RecuperationHeaderUtils.getIdArobasFromHttpRequete(request);
+		return getResponseEntityNdjsonParLots(listIdsActes, lot -> mapperDomainToDto.map(acteTraitement.getDonneesTeleverification(lot, idArobas)));
+	}
+
+	private <T> ResponseEntity<StreamingResponseBody> getResponseEntityNdjsonParLots(final List<UUID> ids, final Function<List<UUID>, List<T>> traitementLot) {
+		// Chaque lot est écrit dès qu'il est prêt, dans l'ordre des identifiants : une ligne JSON par élément
+		final StreamingResponseBody flux = outputStream -> executeurParLots.traiter(ids, traitementLot, lot -> {
+			try {
+				for (T element : lot) {
+					outputStream.write(objectMapper.writeValueAsBytes(element));
+					outputStream.write('\n');
+				}
+				outputStream.flush();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(flux);
 	}
 
 
@@ -369,9 +673,33 @@ public class ActeController {
 		return new ResponseEntity<>(new Result<>(lots), httpHeaders, status);
 	}
 
+	@PreAuthorize("estBatch(#request)")
+	@ApiOperation(value = "Retourne le lot suivant d'actes images à reprendre, paginé par acte")
+	@ApiResponses(value = {
+			@ApiResponse(code = 200, message = "OK", response = Result.class),
+			@ApiResponse(code = 206, message = "Lot partiel, d'autres lots suivent", response = Result.class),
+			@ApiResponse(code = 500, message = "Erreur interne", response = Result.class),
+			@ApiResponse(code = 503, message = "Service indisponible", response = Result.class)})
+	@GetMapping(value = "/actesimages/lots", consumes = {MediaType.ALL_VALUE})
+	public ResponseEntity<Result<List<LotActeImageDto>>> getLotsActesImages(@RequestParam final NatureActe natureActe,
+																			@RequestParam(required = false) final UUID curseur,
+																			@RequestParam(defaultValue = "100") final int nombreActes,
+																			final HttpServletRequest request) {
+		// Toutes les images d'un acte sont dans le même lot ; le curseur est l'identifiant du dernier acte renvoyé
+		List<ActeImage> actesImages = lotsActesImagesTraitement.getLotActesImages(natureActe, curseur, nombreActes);
+		List<LotActeImageDto> lots = getLotActeImageDtos(mapperDomainToDto.mapActeImages(actesImages));
+
+		HttpHeaders httpHeaders = new HttpHeaders();
+		boolean lotComplet = lots.size() >= nombreActes;
+		if (lotComplet) {
+			httpHeaders.set(HEADER_CURSEUR_SUIVANT, lots.get(lots.size() - 1).getIdActe().toString());
+		}
+		return new ResponseEntity<>(new Result<>(lots), httpHeaders, lotComplet ? HttpStatus.PARTIAL_CONTENT : HttpStatus.OK);
+	}
+
 	private static @NotNull List<LotActeImageDto> getLotActeImageDtos(List<ActeImageDto> actesImagesDto) {
 		if (null != actesImagesDto && !actesImagesDto.isEmpty()) {
-			Map<UUID, List<ActeImageDto>> actesImagesParIdActe = actesImagesDto.stream().collect(Collectors.groupingBy(ActeImageDto::getIdActe));
+			Map<UUID, List<ActeImageDto>> actesImagesParIdActe = actesImagesDto.stream().collect(Collectors.groupingBy(ActeImageDto::getIdActe, LinkedHashMap::new, Collectors.toList()));
 			return actesImagesParIdActe.values().stream().filter(Objects::nonNull).map(acteImageDtos -> LotActeImageDto.builder()
 																													   .idActe(acteImageDtos.get(0).getIdActe())
 																													   .dateCreationActe(acteImageDtos.get(0).getDateCreationActe())
@@ -395,12 +723,10 @@ public class ActeController {
 	@GetMapping(value = "{idActe}/alertes", consumes = {MediaType.ALL_VALUE})
 	public Result<ListeAlerteActeDto> getAlertesActe(@PathVariable(name = "idActe") final UUID idActe,
 													 final HttpServletRequest request) {
-		// Récupération des alertes
-		List<AlerteActe> alertesActe = acteTraitement.getAlertesActe(idActe);
-		// Récupération de l'ID TypeRegistre
-		UUID idTypeRegistre = acteTraitement.getIdTypeRegistre(idActe);
-
-		ListeAlerteActeDto listeAlertesActeDTO = mapperDomainToDto.mapListeAlertesActe(idTypeRegistre, alertesActe);
+		// Récupération des alertes et de l'ID TypeRegistre, indépendantes l'une de l'autre
+		ListeAlerteActeDto listeAlertesActeDTO = lecturesParalleles.combiner(() -> acteTraitement.getAlertesActe(idActe),
+																			 () -> acteTraitement.getIdTypeRegistre(idActe),
+																			 (alertesActe, idTypeRegistre) -> mapperDomainToDto.mapListeAlertesActe(idTypeRegistre, alertesActe));
 		return new Result<>(listeAlertesActeDTO);
 	}
 
@@ -524,8 +850,9 @@ public class ActeController {
 		final String idArobas = RecuperationHeaderUtils.getIdArobasFromHttpRequete(request);
 
 		miseAJourActeService.miseAJour(mapperDtoToDomain.mapMiseAjourActe(miseAjourActeDto), idArobas);
+		compositionActeTexteTraitement.invaliderCompositionActe(miseAjourActeDto.getIdActe());
 
-		return new Result<>(acteTraitement.getCorpsActeTexte(miseAjourActeDto.getIdActe(), idArobas, true));
+		return new Result<>(compositionActeTexteTraitement.getCorpsActeTexte(miseAjourActeDto.getIdActe(), idArobas, true));
 	}
 
 	@PreAuthorize("estProfilReceUser(#request)")
@@ -593,6 +920,7 @@ public class ActeController {
 																		.detailMariage(mapperDtoToDomain.mapDetailMariage(saisieExtraitDto.getDetailMariage())).build();
 
 		acteTraitement.miseAJourSuiteSaisieExtrait(saisieExtraitCommand, idArobas);
+		compositionActeTexteTraitement.invaliderCompositionActe(idActe);
 
 		return new Result<>(null);
 	}
@@ -612,6 +940,7 @@ public class ActeController {
 											   @RequestParam final TypeExtrait type, final HttpServletRequest request) {
 		acteTraitement.sauvegardeCorpsExtrait(idActe, corpsExtrait.getCorpsExtrait(), type,
 											  RecuperationHeaderUtils.getIdArobasFromHttpRequete(request));
+		compositionActeTexteTraitement.invaliderCompositionActe(idActe);
 		return new Result<>(null);
 	}
 
@@ -630,6 +959,22 @@ public class ActeController {
 		return new ResponseEntity<>(result, httpHeaders, status);
 	}
 
+	private ResponseEntity<Result<List<RmcActeReponseDto>>> getResultResponseEntity(final Slice<ResultatRmcActe> rmcActes,
+																					final Map<RmcCommand, BusinessListException> mapErreurActe) {
+		// Pas de requête de comptage en pagination par curseur : le client suit le curseur tant qu'il est présent
+		HttpHeaders httpHeaders = new HttpHeaders();
+		if (rmcActes.hasNext() && rmcActes.hasContent()) {
+			List<ResultatRmcActe> contenu = rmcActes.getContent();
+			httpHeaders.set(HEADER_CURSEUR_SUIVANT, PositionRmc.apres(contenu.get(contenu.size() - 1)).encoder());
+		}
+		Result<List<RmcActeReponseDto>> result = new Result<>();
+		if (!mapErreurActe.isEmpty()) {
+			mapErreurActe.values().forEach(result::addErrors);
+		}
+		result.setData(mapperDomainToDto.mapRmcActes(rmcActes.getContent()));
+		return new ResponseEntity<>(result, httpHeaders, rmcActes.hasNext() ? HttpStatus.PARTIAL_CONTENT : HttpStatus.OK);
+	}
+
 	@PreAuthorize("estProfilReceUser(#request)")
 	@ApiOperation(value = "Composition document final à signer")
 	@ApiResponses(value = {
@@ -643,8 +988,55 @@ public class ActeController {
 	public ResponseEntity<Result<InputStreamResource>> recomposerActeSigne(@PathVariable UUID idActe,
 																		   final HttpServletRequest request) {
 		String idArobas = RecuperationHeaderUtils.getIdArobasFromHttpRequete(request);
+		final String etag = getEtagActeSigneRecompose(idActe, idArobas, "json");
+		if (correspondAIfNoneMatch(request, etag)) {
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+		}
 		final byte[] acteSigne = acteTraitement.recomposerActeSigne(idActe, idArobas);
-		return getResponseEntityForInputStream(acteSigne);
+		return getResponseEntityForInputStream(acteSigne, etag);
+	}
+
+	@PreAuthorize("estProfilReceUser(#request)")
+	@ApiOperation(value = "Document final recomposé, transmis en flux PDF avec support des requêtes Range")
+	@ApiResponses(value = {
+			@ApiResponse(code = 200, message = "OK"),
+			@ApiResponse(code = 206, message = "Contenu partiel"),
+			@ApiResponse(code = 400, message = "Erreur fonctionnelle", response = Result.class),
+			@ApiResponse(code = 403, message = "Erreur de droit", response = Result.class),
+			@ApiResponse(code = 404, message = "Pas d'acte correspondant", response = Result.class),
+			@ApiResponse(code = 500, message = "Erreur interne", response = Result.class)})
+	@GetMapping(value = "/{idActe}/recomposer-document-final/pdf", consumes = {MediaType.ALL_VALUE}, produces = {MediaType.APPLICATION_PDF_VALUE})
+	public ResponseEntity<Resource> recomposerActeSigneEnFlux(@PathVariable UUID idActe,
+															  final HttpServletRequest request) {
+		String idArobas = RecuperationHeaderUtils.getIdArobasFromHttpRequete(request);
+		final String etag = getEtagActeSigneRecompose(idActe, idArobas, "pdf");
+		if (correspondAIfNoneMatch(request, etag)) {
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+		}
+		return getResponseEntityForResource(acteTraitement.getActeSigneRecompose(idActe, idArobas), etag);
+	}
+
+	private String getEtagActeSigneRecompose(final UUID idActe, final String idArobas, final String representation) {
+		// La version de l'acte signé change à chaque intégration de mentions signées ; le document json et le flux pdf
+		// sont deux représentations distinctes et ne partagent pas d'ETag
+		return "\"" + idActe + "-" + representation + "-" + acteTraitement.getVersionActeSigne(idActe, idArobas) + "\"";
+	}
+
+	private static boolean correspondAIfNoneMatch(final HttpServletRequest request, final String etag) {
+		// If-None-Match peut porter une liste d'ETags, sur un ou plusieurs en-têtes, ou "*" ; la comparaison est faible :
+		// le préfixe W/ est ignoré
+		final String etagCompare = StringUtils.removeStart(etag, "W/");
+		final Enumeration<String> valeurs = request.getHeaders(HttpHeaders.IF_NONE_MATCH);
+		while (valeurs != null && valeurs.hasMoreElements()) {
+			final Matcher matcher = ETAG_IF_NONE_MATCH.matcher(valeurs.nextElement());
+			while (matcher.find()) {
+				final String candidat = matcher.group();
+				if ("*".equals(candidat) || etagCompare.equals(StringUtils.removeStart(candidat, "W/"))) {
+					return true;
+				}
+			}
+		}
+		return false;
 	}
 
 	@PreAuthorize("estBatch(#request)")
@@ -680,6 +1072,22 @@ public class ActeController {
 																									   RecuperationHeaderUtils.getIdArobasFromHttpRequete(request))), HttpStatus.OK);
 	}
 
+	@PreAuthorize("estProfilReceUser(#request)")
+	@ApiOperation(value = "Composition document mentions ultérieures à signer, transmis en binaire")
+	@ApiResponses(value = {
+			@ApiResponse(code = 200, message = "OK"),
+			@ApiResponse(code = 400, message = "Erreur fonctionnelle", response = Result.class),
+			@ApiResponse(code = 403, message = "Erreur de droit", response = Result.class),
+			@ApiResponse(code = 404, message = "Pas d'acte correspondant", response = Result.class),
+			@ApiResponse(code = 500, message = "Erreur interne", response = Result.class)})
+	@PatchMapping(value = "/{idActe}/composer-document-mentions-ulterieures/pdf", produces = {MediaType.APPLICATION_OCTET_STREAM_VALUE})
+	public ResponseEntity<byte[]> composerDocumentMentionsUlterieuresBinaire(@RequestBody SignatureCompositionRecord signature,
+																			 @PathVariable UUID idActe,
+																			 final HttpServletRequest request) {
+		return getResponseEntityForDocumentASigner(mentionTraitement.composerDocumentMentionsUlterieuresPdf(idActe, mapperDtoToDomain.mapSignatureComposition(signature),
+																											 RecuperationHeaderUtils.getIdArobasFromHttpRequete(request)));
+	}
+
 	@PreAuthorize("estProfilReceUser(#request)")
 	@ApiOperation(value = "Intégration du document mention signé")
 	@ApiResponses(value = {
@@ -698,6 +1106,66 @@ public class ActeController {
 		return new ResponseEntity<>(new Result<>(), HttpStatus.OK);
 	}
 
+	@PreAuthorize("estProfilReceUser(#request)")
+	@ApiOperation(value = "Composition des documents mentions ultérieures à signer pour un lot d'actes")
+	@ApiResponses(value = {
+			@ApiResponse(code = 200, message = "OK", response = Result.class),
+			@ApiResponse(code = 400, message = "Erreur fonctionnelle", response = Result.class),
+			@ApiResponse(code = 403, message = "Erreur de droit", response = Result.class),
+			@ApiResponse(code = 500, message = "Erreur interne", response = Result.class)})
+	@ResponseStatus(value = HttpStatus.OK)
+	@PatchMapping(value = "/lot/composer-document-mentions-ulterieures", produces = {MediaType.APPLICATION_NDJSON_VALUE})
+	public ResponseEntity<StreamingResponseBody> composerDocumentsMentionsUlterieuresLot(@RequestBody CompositionLotMentionsRecord compositionLot,
+																						 final HttpServletRequest request) {
+		// Contrôles communs avant l'envoi de la réponse, pour qu'un refus garde son code HTTP
+		final Utilisateur utilisateur = signatureLotMentionsTraitement.verifierPrerequisCompositionLot(compositionLot.idsActes(),
+																									   RecuperationHeaderUtils.getIdArobasFromHttpRequete(request));
+		final Signature signature = mapperDtoToDomain.mapSignatureComposition(compositionLot.signature());
+
+		// Une ligne JSON par acte, écrite dès que son document est composé : les documents du lot ne sont jamais tous en mémoire
+		final StreamingResponseBody flux = outputStream -> signatureLotMentionsTraitement.composerDocumentsMentionsUlterieures(
+				compositionLot.idsActes(), signature, utilisateur, resultat -> {
+					try {
+						outputStream.write(objectMapper.writeValueAsBytes(mapResultatSignatureLot(resultat)));
+						outputStream.write('\n');
+						outputStream.flush();
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				});
+
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(flux);
+	}
+
+	@PreAuthorize("estProfilReceUser(#request)")
+	@ApiOperation(value = "Intégration des documents mentions signés pour un lot d'actes")
+	@ApiResponses(value = {
+			@ApiResponse(code = 200, message = "OK", response = Result.class),
+			@ApiResponse(code = 400, message = "Erreur fonctionnelle", response = Result.class),
+			@ApiResponse(code = 403, message = "Erreur de droit", response = Result.class),
+			@ApiResponse(code = 500, message = "Erreur interne", response = Result.class)})
+	@ResponseStatus(value = HttpStatus.OK)
+	@PatchMapping("/lot/integrer-document-mention-signe")
+	public Result<Map<UUID, ResultatSignatureLotDto>> integrerDocumentsMentionsSignesLot(@RequestBody Map<UUID, DocumentSigneDTO> documentsSignesDto,
+																						 final HttpServletRequest request) {
+		final Map<UUID, DocumentSigne> documentsSignes = new LinkedHashMap<>();
+		documentsSignesDto.forEach((idActe, documentSigneDTO) -> documentsSignes.put(idActe, mapperDtoToDomain.map(documentSigneDTO)));
+		return new Result<>(mapResultatsSignatureLot(signatureLotMentionsTraitement.integrerDocumentsMentionsSignes(documentsSignes,
+																												   RecuperationHeaderUtils.getIdArobasFromHttpRequete(request))));
+	}
+
+	private static Map<UUID, ResultatSignatureLotDto> mapResultatsSignatureLot(final Map<UUID, ResultatSignatureLot> resultats) {
+		final Map<UUID, ResultatSignatureLotDto> resultatsDto = new LinkedHashMap<>();
+		resultats.forEach((idActe, resultat) -> resultatsDto.put(idActe, mapResultatSignatureLot(resultat)));
+		return resultatsDto;
+	}
+
+	private static ResultatSignatureLotDto mapResultatSignatureLot(final ResultatSignatureLot resultat) {
+		return new ResultatSignatureLotDto(resultat.idActe(),
+										   resultat.document() == null ? null : Base64.getEncoder().encodeToString(resultat.document()),
+										   resultat.codeErreur());
+	}
+
 	@PreAuthorize("estProfilReceUser(#request)")
 	@ApiOperation(value = "Composition acte provenant de la reprise qu'on appele double numérique")
 	@ApiResponses(value = {
@@ -718,4 +1186,30 @@ public class ActeController {
 																										   idArobas)),
 									HttpStatus.OK);
 	}
+
+	@PreAuthorize("estProfilReceUser(#request)")
+	@ApiOperation(value = "Composition acte double numérique à signer, transmis en binaire")
+	@ApiResponses(value = {
+			@ApiResponse(code = 200, message = "OK"),
+			@ApiResponse(code = 400, message = "Erreur fonctionnelle", response = Result.class),
+			@ApiResponse(code = 403, message = "Erreur de droit", response = Result.class),
+			@ApiResponse(code = 404, message = "Pas d'acte correspondant", response = Result.class),
+			@ApiResponse(code = 500, message = "Erreur interne", response = Result.class)})
+	@PatchMapping(value = "/{idActe}/double-numerique/composer-document-final/pdf", produces = {MediaType.APPLICATION_OCTET_STREAM_VALUE})
+	public ResponseEntity<byte[]> composerActeDoubleNumeriqueBinaire(@RequestBody SignatureCompositionRecord signature,
+																	 @PathVariable UUID idActe,
+																	 final HttpServletRequest request) {
+		String idArobas = RecuperationHeaderUtils.getIdArobasFromHttpRequete(request);
+		return getResponseEntityForDocumentASigner(acteDoubleNumeriqueTraitement.composerActeDoubleNumeriquePdf(idActe,
+																												 mapperDtoToDomain.mapSignatureComposition(signature),
+																												 idArobas));
+	}
+
+	private static ResponseEntity<byte[]> getResponseEntityForDocumentASigner(final byte[] document) {
+		// Le document à signer est transmis tel quel : ni encodage base 64 ni enveloppe json
+		return ResponseEntity.ok()
+							 .contentType(MediaType.APPLICATION_OCTET_STREAM)
+							 .contentLength(document.length)
+							 .body(document);
+	}
 }
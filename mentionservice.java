@@ -12,9 +12,9 @@ import fr.gouv.diplomatie.rece.etatcivil.application.ports.in.PersonneTraitement
 import fr.gouv.diplomatie.rece.etatcivil.application.ports.in.PreuveSignatureActeTraitement;
 import fr.gouv.diplomatie.rece.etatcivil.application.ports.in.StockageTraitement;
 import fr.gouv.diplomatie.rece.etatcivil.application.ports.in.SuiviHorodatageTraitement;
-import fr.gouv.diplomatie.rece.etatcivil.application.ports.in.SuiviSignatureTraitement;
 import fr.gouv.diplomatie.rece.etatcivil.application.ports.out.CompositionPort;
 import fr.gouv.diplomatie.rece.etatcivil.application.ports.out.DeleteMentionPort;
+import fr.gouv.diplomatie.rece.etatcivil.application.ports.out.IntegrationDocumentMentionsPort;
 import fr.gouv.diplomatie.rece.etatcivil.application.ports.out.LoadActePort;
 import fr.gouv.diplomatie.rece.etatcivil.application.ports.out.LoadAnalyseMarginalePort;
 import fr.gouv.diplomatie.rece.etatcivil.application.ports.out.LoadDocumentMentionsPort;
@@ -25,6 +25,7 @@ import fr.gouv.diplomatie.rece.etatcivil.application.ports.out.UpdateActePort;
 import fr.gouv.diplomatie.rece.etatcivil.application.ports.out.UpdateAnalyseMarginalePort;
 import fr.gouv.diplomatie.rece.etatcivil.application.ports.out.UpdateDocumentMentionsPort;
 import fr.gouv.diplomatie.rece.etatcivil.application.ports.out.UpdateMentionPort;
+import fr.gouv.diplomatie.rece.etatcivil.application.services.MesureEtapesSignatureMentions.EtapeSignatureMentions;
 import fr.gouv.diplomatie.rece.etatcivil.application.services.rules.acteetextrait.etabli.naissance.RegleFormatageTexteActeEtExtraitEtabliNaissance;
 import fr.gouv.diplomatie.rece.etatcivil.application.services.utils.CompositionJsonUtils;
 import fr.gouv.diplomatie.rece.etatcivil.application.services.utils.DateUtils;
@@ -43,6 +44,7 @@ import fr.gouv.diplomatie.rece.etatcivil.domain.repertoirecivil.acte.Acte;
 import fr.gouv.diplomatie.rece.etatcivil.domain.repertoirecivil.acte.AnalyseMarginale;
 import fr.gouv.diplomatie.rece.etatcivil.domain.repertoirecivil.commun.AutoriteEtatCivil;
 import fr.gouv.diplomatie.rece.etatcivil.domain.repertoirecivil.mention.DocumentMentions;
+import fr.gouv.diplomatie.rece.etatcivil.domain.repertoirecivil.mention.IntegrationDocumentMentions;
 import fr.gouv.diplomatie.rece.etatcivil.domain.repertoirecivil.mention.Mention;
 import fr.gouv.diplomatie.rece.etatcivil.domain.repertoirecivil.personne.Personne;
 import fr.gouv.diplomatie.rece.etatcivil.domain.repertoirecivil.signature.DocumentSigne;
@@ -53,12 +55,14 @@ import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Clock;
 import java.time.DateTimeException;
@@ -69,10 +73,13 @@ import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static org.apache.commons.lang3.StringUtils.LF;
@@ -89,7 +96,7 @@ public class MentionService implements MentionTraitement {
 	private final DeleteMentionPort deleteMentionPort;
 	private final LoadUtilisateursPort loadUtilisateursPort;
 	private final LoadActePort loadActePort;
-	private final SuiviSignatureTraitement suiviSignature;
+	private final DisponibiliteSignatureService disponibiliteSignature;
 	private final CompositionPort compositionPort;
 
 	private final SuiviHorodatageTraitement suiviHorodatage;
@@ -105,6 +112,15 @@ public class MentionService implements MentionTraitement {
 	private final UpdateAnalyseMarginalePort updateAnalyseMarginalePort;
 	private final PersonneTraitement personneTraitement;
 	private final UpdateActePort updateActePort;
+	private final NomenclatureService nomenclatureService;
+	private final IntegrationDocumentMentionsPort integrationDocumentMentionsPort;
+	private final TransactionTemplate transactionTemplate;
+	private final DocumentComposeCache documentComposeCache;
+	private final CompositionJsonActeCache compositionJsonActeCache;
+	private final MesureEtapesSignatureMentions mesureEtapes;
+	private final AllocationNumeroOrdreService allocationNumeroOrdre;
+	private final JournalPreuvesAvantSignature journalPreuvesAvantSignature;
+	private final AdmissionHorodatageService admissionHorodatage;
 	private final Clock clock;
 
 	@Value("${signature.blocage.debut.heure}")
@@ -134,79 +150,107 @@ public class MentionService implements MentionTraitement {
 			throw new BusinessException(BusinessExceptionCode.ERREUR_TYPE_MENTION_NULL, idActe);
 		}
 
+		// Résolution des types de mention contre la nomenclature en mémoire plutôt qu'une lecture de type_mention par mention
+		mentions.forEach(mention -> {
+			final UUID idTypeMention = mention.getTypeMention().getIdTypeMention();
+			mention.setTypeMention(nomenclatureService.getTypeMention(idTypeMention)
+													  .orElseThrow(() -> new BusinessException(BusinessExceptionCode.TYPE_MENTION_INCONNU, idTypeMention)));
+		});
+
 		// Vérification que l'acte existe
 		if (!loadActePort.acteExisteByIdActe(idActe)) {
 			throw new BusinessException(BusinessExceptionCode.AUCUN_ACTE, idActe);
 		}
 
-		final List<Mention> mentionsBdd = loadMentionPort.getMentionsByIdActe(idActe);
+		// Indexation des mentions en base par identifiant pour un diff en O(n + m)
+		final Map<UUID, Mention> mentionsBddParId = loadMentionPort.getMentionsByIdActe(idActe).stream()
+																   .collect(Collectors.toMap(Mention::getId, Function.identity(), (m1, m2) -> m1, LinkedHashMap::new));
 
 		final List<Mention> listeMajMentions = new ArrayList<>();
 		final List<Mention> listeAjoutMentions = new ArrayList<>();
 
-		// on récupère les mentions à mettre à jour
 		mentions.forEach(mention -> {
+			// Le retrait de l'index ne laisse à la fin que les mentions candidates à la suppression.
 			// Si une mention en entrée n'est pas en base on l'ajoute, l'id qui permet de
 			// comparer vient du front et ne sera pas celui en base.
-			if (mentionsBdd.stream().noneMatch(m -> m.getId().equals(mention.getId()))) {
+			final Mention mentionBdd = mentionsBddParId.remove(mention.getId());
+			if (mentionBdd == null) {
 				mention.setOrigine(TypeOrigine.RECE);
 				listeAjoutMentions.add(mention);
+			} else {
+				mention.setOrigine(mentionBdd.getOrigine());
+				listeMajMentions.add(mention);
 			}
-			// Valorisation des mentions à mettre à jour
-			mentionsBdd.stream().filter(m -> m.getId().equals(mention.getId())).findFirst()
-					   .ifPresent(mentionBdd -> {
-						   mention.setOrigine(mentionBdd.getOrigine());
-						   listeMajMentions.add(mention);
-					   });
-			// Filtre des mentions à mettre à jour afin de garder que celle à supprimer
-			mentionsBdd.removeIf(m -> m.getId().equals(mention.getId()));
-
 		});
 
 		// Création de la liste des mentions à supprimer filtrée préalablement et
 		// seulement si c'est une mention ajoutée lors d'une délivrance : absence de
 		// texte mention et présence d'un texte de délivrance
-		final List<Mention> listeSupprMentions = mentionsBdd.stream()
-															.filter(mention -> mention.getTextes().getTexteMention() == null
-																	&& (mention.getTextes().getTexteMentionDelivrance() != null || mention.getTextes().getTexteMentionPlurilingue() != null))
-															.toList();
+		final List<UUID> listeSupprMentions = mentionsBddParId.values().stream()
+															  .filter(mention -> mention.getTextes().getTexteMention() == null
+																	  && (mention.getTextes().getTexteMentionDelivrance() != null || mention.getTextes().getTexteMentionPlurilingue() != null))
+															  .map(Mention::getId)
+															  .toList();
 
+		// Écritures groupées : un batch JDBC par type d'opération au lieu d'une requête par mention
 		if (!listeMajMentions.isEmpty()) {
-			listeMajMentions.forEach(m -> updateMentionPort.updateMention(m, loadActePort.getNatureActeByIdActe(idActe).toString()));
+			updateMentionPort.updateMentions(listeMajMentions, loadActePort.getNatureActeByIdActe(idActe).toString());
 		}
 		if (!listeAjoutMentions.isEmpty()) {
-			listeAjoutMentions.forEach(m -> updateMentionPort.addMention(m, idActe));
+			updateMentionPort.addMentions(listeAjoutMentions, idActe);
 		}
 		if (!listeSupprMentions.isEmpty()) {
-			listeSupprMentions.forEach(deleteMentionPort::deleteMention);
+			deleteMentionPort.deleteMentions(listeSupprMentions);
 		}
+		compositionJsonActeCache.invalider(idActe);
 	}
 
 	@Override
 	public String composerDocumentMentionsUlterieures(UUID idActe, Signature signature, String idArobas) {
+		// Retourner le document en base 64 pour le signer
+		return Base64.encodeBase64String(composerDocumentMentionsUlterieuresPdf(idActe, signature, idArobas));
+	}
 
+	@Override
+	public byte[] composerDocumentMentionsUlterieuresPdf(UUID idActe, Signature signature, String idArobas) {
+		return composerDocumentMentionsUlterieuresPdf(idActe, signature, verifierPrerequisSignature(idArobas));
+	}
+
+	/**
+	 * Contrôles préalables à toute composition d'un document à signer, indépendants de l'acte : ils ne sont faits qu'une
+	 * fois pour une signature en lot.
+	 */
+	@Override
+	public Utilisateur verifierPrerequisSignature(String idArobas) {
 		// Vérifier la disponibilité de la signature
 		verifierDisponibiliteSignature();
 		// Vérifier les droits de l'utilisateur
-		Utilisateur utilisateur = verifierDroitsUtilisateur(idArobas);
+		Utilisateur utilisateur = mesureEtapes.mesurer(EtapeSignatureMentions.VERIFICATION_DROITS, TypeDocumentComposition.MENTIONS_ULTERIEURES,
+													   () -> verifierDroitsUtilisateur(idArobas));
 		// Vérifier la plage horaire de la signature
 		verifierPlageHoraireSignature(utilisateur);
+		return utilisateur;
+	}
+
+	@Override
+	public byte[] composerDocumentMentionsUlterieuresPdf(UUID idActe, Signature signature, Utilisateur utilisateur) {
 		// Récupérer l'acte signé
-		Acte acteSigne = getActeSigneById(idActe, idArobas);
+		Acte acteSigne = getActeSigneById(idActe);
 		// Valoriser les mentions de l'acte signé dans la base
-		valoriserMentionsActe(acteSigne, utilisateur, signature);
+		mesureEtapes.mesurer(EtapeSignatureMentions.VALORISATION_MENTIONS, TypeDocumentComposition.MENTIONS_ULTERIEURES,
+							 () -> valoriserMentionsActe(acteSigne, utilisateur, signature));
 		// Composer le pdf des mentions signé
 		byte[] documentMentionsUlterieursPDF = composerPdfMentionsUlterieures(acteSigne);
 		// Enregistrer le document mentions dans la base
 		DocumentMentions documentMentions = enregistrerDocumentMentions(idActe);
-		// Enregistrer la preuve pré-signature
-		preuveSignatureActeTraitement.enregistrerAvantSignature(documentMentions.getId(), documentMentionsUlterieursPDF);
-		// Retourner le document en base 64 pour le signer
-		return Base64.encodeBase64String(documentMentionsUlterieursPDF);
+		// Journaliser la preuve pré-signature, transférée en base en tâche de fond
+		mesureEtapes.mesurer(EtapeSignatureMentions.PREUVE_AVANT_SIGNATURE, TypeDocumentComposition.MENTIONS_ULTERIEURES,
+							 () -> journalPreuvesAvantSignature.enregistrer(documentMentions.getId(), documentMentionsUlterieursPDF));
+		return documentMentionsUlterieursPDF;
 	}
 
 	private void verifierDisponibiliteSignature() {
-		if (suiviSignature.getStatutSignature() != StatutSignature.DISPONIBLE) {
+		if (disponibiliteSignature.getStatutSignature() != StatutSignature.DISPONIBLE) {
 			throw new TechnicalException(TechnicalExceptionCode.SIGNATURE_INDISPO);
 		}
 	}
@@ -214,6 +258,7 @@ public class MentionService implements MentionTraitement {
 	private Utilisateur verifierDroitsUtilisateur(String idArobas) {
 		Utilisateur utilisateur = loadUtilisateursPort.getUtilisateurByIdArobas(idArobas);
 		utilisateur.verifierDroit(NomDroit.SIGNER_MENTION);
+		VerificationDroits.controlerUtilisateur(utilisateur);
 		return utilisateur;
 	}
 
@@ -237,15 +282,17 @@ public class MentionService implements MentionTraitement {
 	}
 
 	private DocumentMentions enregistrerDocumentMentions(UUID idActe) {
-		return Optional.ofNullable(loadDocumentMentionsPort.getDocumentMentionsByIdActeAndStatut(idActe, StatutDocumentMentions.NON_SIGNE))
-					   .orElseGet(() -> {
-						   DocumentMentions documentMentions = new DocumentMentions();
-						   documentMentions.setId(UuidCreator.getShortPrefixComb());
-						   documentMentions.setIdActe(idActe);
-						   documentMentions.setStatutDocumentMentions(StatutDocumentMentions.NON_SIGNE);
-						   documentMentions.setNumeroOrdreSignature(Integer.valueOf(attributionProchainNumeroOrdreDocumentMention(idActe)));
-						   return saveDocumentMentionsPort.enregistrer(documentMentions);
-					   });
+		// Deux compositions simultanées du même acte ne doivent pas créer deux documents portant le même numéro
+		return allocationNumeroOrdre.attribuerPourActe(idActe, () ->
+				Optional.ofNullable(loadDocumentMentionsPort.getDocumentMentionsByIdActeAndStatut(idActe, StatutDocumentMentions.NON_SIGNE))
+						.orElseGet(() -> {
+							DocumentMentions documentMentions = new DocumentMentions();
+							documentMentions.setId(UuidCreator.getShortPrefixComb());
+							documentMentions.setIdActe(idActe);
+							documentMentions.setStatutDocumentMentions(StatutDocumentMentions.NON_SIGNE);
+							documentMentions.setNumeroOrdreSignature(Integer.valueOf(attributionProchainNumeroOrdreDocumentMention(idActe)));
+							return saveDocumentMentionsPort.enregistrer(documentMentions);
+						}));
 	}
 
 	private void valoriserMentionsActe(Acte acteSigne, Utilisateur utilisateur, Signature signature) {
@@ -265,6 +312,7 @@ public class MentionService implements MentionTraitement {
 			}
 			updateMentionPort.addMention(mention, acteSigne.getId());
 		});
+		compositionJsonActeCache.invalider(acteSigne.getId());
 	}
 
 	@Override
@@ -288,75 +336,153 @@ public class MentionService implements MentionTraitement {
 			throw new BusinessException(BusinessExceptionCode.AUCUNE_MENTION_A_SIGNER, acte.getId());
 		}
 
-		// Composition des mentions ultérieures valides à signer.
-		return compositionPort.composeDocumentsPdf(CompositionJsonUtils.composerJsonPourGenerationMentionsUlterieuresPdf(acte, attributionProchainNumeroOrdreDocumentMention(acte.getId())), TypeDocumentComposition.MENTIONS_ULTERIEURES);
+		// Composition des mentions ultérieures valides à signer. Le document étant entièrement déterminé par le json de
+		// composition, son empreinte sert de version : un json identique est servi depuis le cache sans appel au service de composition.
+		final String jsonComposition = CompositionJsonUtils.composerJsonPourGenerationMentionsUlterieuresPdf(acte, attributionProchainNumeroOrdreDocumentMention(acte.getId()));
+		final DocumentComposeCache.CleDocumentCompose cle = new DocumentComposeCache.CleDocumentCompose(acte.getId(), DigestUtils.sha256Hex(jsonComposition),
+																										  TypeDocumentComposition.MENTIONS_ULTERIEURES);
+		return documentComposeCache.getOuComposer(cle, () -> mesureEtapes.mesurer(EtapeSignatureMentions.COMPOSITION_PDF, TypeDocumentComposition.MENTIONS_ULTERIEURES,
+																				  () -> compositionPort.composeDocumentsPdf(jsonComposition, TypeDocumentComposition.MENTIONS_ULTERIEURES)));
 	}
 
 	@Override
-	@Transactional
 	public void integrerDocumentMentionSigne(UUID idActe, String idArobas, DocumentSigne documentSigne) {
-		// Vérification du droit de l'utilisateur
-		Utilisateur utilisateur = loadUtilisateursPort.getUtilisateurByIdArobas(idArobas);
-		utilisateur.verifierDroit(NomDroit.SIGNER_MENTION);
-		Acte acte = getActeSigneById(idActe, idArobas);
+		integrerDocumentMentionSigne(idActe, idArobas, verifierPrerequisIntegration(idArobas), documentSigne);
+	}
+
+	/**
+	 * Contrôles préalables à l'intégration d'un document signé, indépendants de l'acte : ils ne sont faits qu'une fois
+	 * pour une intégration en lot.
+	 */
+	@Override
+	public Utilisateur verifierPrerequisIntegration(String idArobas) {
+		verifierDisponibiliteSignature();
+		return verifierDroitsUtilisateur(idArobas);
+	}
+
+	@Override
+	public void integrerDocumentMentionSigne(UUID idActe, String idArobas, Utilisateur utilisateur, DocumentSigne documentSigne) {
+		Acte acte = getActeSigneById(idActe);
+		// Le document signé n'est accepté que si la preuve pré-signature du document composé est en base
+		DocumentMentions documentMentions = loadDocumentMentionsPort.getDocumentMentionsByIdActeAndStatut(idActe, StatutDocumentMentions.NON_SIGNE);
+		if (documentMentions == null) {
+			// Refus avant tout appel réseau : sans document à signer, le document reçu ne peut pas être intégré
+			throw new BusinessException(BusinessExceptionCode.DOCUMENT_MENTIONS_NON_SIGNE_INTROUVABLE, idActe);
+		}
+		journalPreuvesAvantSignature.garantirEnregistree(documentMentions.getId());
 		DSSDocument documentSignePadesLT;
 		// On vérifie que la signature est dispo pour ne pas griller de numéros d'actes
-		if (suiviSignature.getStatutSignature() == StatutSignature.DISPONIBLE) {
+		if (disponibiliteSignature.getStatutSignature() == StatutSignature.DISPONIBLE) {
 			// Cet appel n'est pas dans le 'try' car on gère différement les cas d'erreurs techniques d'horodatage et les autres erreurs techniques :
 			// - En cas d'erreur technique sur l'horodatage, l'horodatage est bloqué par la méthode  augmentationPdfSigneFromPadesBToPadesLT() mais avec possibilité
 			// de déblocage automatique par le TI SuiviHorodatage dès que le service est de nouveau disponible.
 			// - Dans les autres cas d'erreur technique, on bloque l'horodatage avec besoin d'analyse humaine.
-			documentSignePadesLT = horodatageTraitement.augmentationPdfSigneFromPadesBToPadesLT(documentSigne);
+			// Quand l'horodatage est saturé, le contrôle d'admission refuse la signature avant l'appel, sans bloquer l'horodatage
+			documentSignePadesLT = admissionHorodatage.executer(() -> {
+				try {
+					return mesureEtapes.mesurer(EtapeSignatureMentions.AUGMENTATION_PADES_LT, TypeDocumentComposition.MENTIONS_ULTERIEURES,
+												() -> horodatageTraitement.augmentationPdfSigneFromPadesBToPadesLT(documentSigne));
+				} catch (TechnicalException technicalException) {
+					// Le blocage d'horodatage éventuellement posé doit être vu immédiatement par les signatures suivantes
+					disponibiliteSignature.invalider();
+					throw technicalException;
+				}
+			});
 		} else {
 			throw new TechnicalException(TechnicalExceptionCode.SIGNATURE_INDISPO);
 		}
 		try {
-			// Enregistrement et horodatage du document au statut non signé
-			DocumentMentions documentMentions = loadDocumentMentionsPort.getDocumentMentionsByIdActeAndStatut(idActe, StatutDocumentMentions.NON_SIGNE);
+			// Horodatage et stockage Swift du document, hors transaction : ces appels réseau ne doivent pas retenir
+			// de connexion ni de verrou en base
 			Pair<ResultatEnregistrerDocumentSwift, ResultatHorodatageDocumentSigne> resultat = enregistrerDocument(documentSignePadesLT, documentMentions.getId());
 
-			// Récupération des IDs des mentions à mettre à jour
-			List<UUID> idsMentions = acte.getMentions().stream()
-										 .filter(mention -> StatutMention.BROUILLON == mention.getStatut())
-										 .map(Mention::getId)
-										 .toList();
-
-			// Mise à jour des mentions liées au document
-			majMentionsLieesAuDocument(idsMentions, resultat.getRight().getDateHorodatage(), documentMentions.getId());
-			updateMentionPort.majMentionsApresSignature(idsMentions, resultat.getRight().getDateHorodatage(), documentMentions.getId());
-			updateDocumentMentionsPort.updateDocumentMentionApresSignature(idActe, StatutDocumentMentions.SIGNE,
-																		   resultat.getLeft().getConteneurSwift(),
-																		   resultat.getLeft().getReferenceSwift());
-
-			// Enregistrer la nouvelle situation de l'Analyse marginale
-			List<UUID> idsAnalysesMarginalesNonValides = loadAnalyseMarginalePort.getIdsAnalysesMarginalesNonValidesByIdActe(idActe);
-			if (idsAnalysesMarginalesNonValides.size() == 1) {
-				updateAnalyseMarginalePort.updateSituationAnalyseMarginale(idActe, utilisateur.getNom(), utilisateur.getPrenom());
-			} else if (idsAnalysesMarginalesNonValides.size() > 1) {
-				throw new BusinessException(BusinessExceptionCode.ERREUR_PLUSIEURS_ANALYSES_MARGINALES_NON_VALIDE_SUR_ACTE, idActe, idsAnalysesMarginalesNonValides);
+			// Trace durable du document stocké, pour reprise si la mise à jour en base n'aboutit pas
+			IntegrationDocumentMentions integration = integrationDocumentMentionsPort.enregistrer(IntegrationDocumentMentions.builder()
+																												  .idDocumentMentions(documentMentions.getId())
+																												  .idActe(idActe)
+																												  .idArobas(idArobas)
+																												  .etape(IntegrationDocumentMentions.EtapeIntegration.STOCKE)
+																												  .dateHorodatage(resultat.getRight().getDateHorodatage())
+																												  .conteneurSwift(resultat.getLeft().getConteneurSwift())
+																												  .referenceSwift(resultat.getLeft().getReferenceSwift())
+																												  .dateDerniereEtape(Instant.now(clock))
+																												  .build());
+
+			// Mise à jour en base dans une transaction courte. L'étape est enregistrée dans sa propre transaction : elle n'est
+			// écrite qu'une fois l'issue de la mise à jour connue
+			try {
+				transactionTemplate.executeWithoutResult(statut -> integrerDocumentMentionEnBase(acte, utilisateur, documentSigne, documentMentions, resultat));
+			} catch (BusinessException businessException) {
+				terminerIntegration(integration, IntegrationDocumentMentions.EtapeIntegration.ECHEC);
+				throw businessException;
 			}
-
-			//Mise à jour de la table personne, autre_nom, prenom et autre_prenom
-			AnalyseMarginale analyseMarginale = loadAnalyseMarginalePort.getDerniereAnalyseMarginaleSigneeByIdActe(idActe);
-			List<Personne> personneTitulaires = acte.getPersonnes();
-			personneTraitement.majPersonnesParAnalyseMarginale(personneTitulaires, analyseMarginale);
-
-			// Enregistrer les preuves de signature
-			preuveSignatureActeTraitement.enregistreApresSignatureDocumentMentions(documentSigne, acte, documentMentions, utilisateur, resultat.getLeft(), resultat.getRight().getDateHorodatage());
-			updateActePort.updateDateDerniereMiseAJour(idActe, ZonedDateTime.now(ZoneId.of(utilisateur.getFuseauHoraire())).toLocalDate());
+			terminerIntegration(integration, IntegrationDocumentMentions.EtapeIntegration.INTEGRE);
 
 		} catch (DateTimeException dateTimeException) {
 			throw new BusinessException(BusinessExceptionCode.FUSEAU_HORAIRE_INVALIDE, utilisateur.getFuseauHoraire(), dateTimeException);
 		} catch (TechnicalException technicalException) {
 			log.error(technicalException.getCode(), technicalException);
 			suiviHorodatage.creerBlocageAAnalyser();
+			disponibiliteSignature.invalider();
 			throw technicalException;
 		}
 	}
 
+	private void integrerDocumentMentionEnBase(Acte acte, Utilisateur utilisateur, DocumentSigne documentSigne, DocumentMentions documentMentions,
+											   Pair<ResultatEnregistrerDocumentSwift, ResultatHorodatageDocumentSigne> resultat) {
+		UUID idActe = acte.getId();
+
+		// Le document a pu être intégré par une autre requête pendant les appels réseau. Le passage à SIGNE n'est fait que
+		// si le document est encore NON_SIGNE, en tête de transaction : la ligne reste verrouillée jusqu'au commit et une
+		// intégration concurrente du même document ne met à jour aucune ligne
+		int nombreDocumentsSignes = updateDocumentMentionsPort.updateDocumentMentionApresSignatureSiNonSigne(documentMentions.getId(),
+																											 resultat.getLeft().getConteneurSwift(),
+																											 resultat.getLeft().getReferenceSwift());
+		if (nombreDocumentsSignes == 0) {
+			throw new BusinessException(BusinessExceptionCode.DOCUMENT_MENTIONS_DEJA_SIGNE, idActe, documentMentions.getId());
+		}
+
+		// Récupération des IDs des mentions à mettre à jour
+		List<UUID> idsMentions = acte.getMentions().stream()
+									 .filter(mention -> StatutMention.BROUILLON == mention.getStatut())
+									 .map(Mention::getId)
+									 .toList();
+
+		// Mise à jour des mentions liées au document
+		majMentionsLieesAuDocument(idsMentions, resultat.getRight().getDateHorodatage(), documentMentions.getId());
+
+		// Enregistrer la nouvelle situation de l'Analyse marginale
+		List<UUID> idsAnalysesMarginalesNonValides = loadAnalyseMarginalePort.getIdsAnalysesMarginalesNonValidesByIdActe(idActe);
+		if (idsAnalysesMarginalesNonValides.size() == 1) {
+			updateAnalyseMarginalePort.updateSituationAnalyseMarginale(idActe, utilisateur.getNom(), utilisateur.getPrenom());
+		} else if (idsAnalysesMarginalesNonValides.size() > 1) {
+			throw new BusinessException(BusinessExceptionCode.ERREUR_PLUSIEURS_ANALYSES_MARGINALES_NON_VALIDE_SUR_ACTE, idActe, idsAnalysesMarginalesNonValides);
+		}
+
+		//Mise à jour de la table personne, autre_nom, prenom et autre_prenom
+		AnalyseMarginale analyseMarginale = loadAnalyseMarginalePort.getDerniereAnalyseMarginaleSigneeByIdActe(idActe);
+		List<Personne> personneTitulaires = acte.getPersonnes();
+		personneTraitement.majPersonnesParAnalyseMarginale(personneTitulaires, analyseMarginale);
+
+		// Enregistrer les preuves de signature
+		preuveSignatureActeTraitement.enregistreApresSignatureDocumentMentions(documentSigne, acte, documentMentions, utilisateur, resultat.getLeft(), resultat.getRight().getDateHorodatage());
+		updateActePort.updateDateDerniereMiseAJour(idActe, ZonedDateTime.now(ZoneId.of(utilisateur.getFuseauHoraire())).toLocalDate());
+		compositionJsonActeCache.invalider(idActe);
+	}
+
+	private void terminerIntegration(IntegrationDocumentMentions integration, IntegrationDocumentMentions.EtapeIntegration etape) {
+		integration.setEtape(etape);
+		integration.setDateDerniereEtape(Instant.now(clock));
+		integrationDocumentMentionsPort.enregistrer(integration);
+	}
+
 	private Pair<ResultatEnregistrerDocumentSwift, ResultatHorodatageDocumentSigne> enregistrerDocument(DSSDocument documentSignePadesLT, UUID idActe) {
-		ResultatHorodatageDocumentSigne resultatHorodatageDocumentSigne = horodatageTraitement.validationEtRecuperationDateHorodatage(documentSignePadesLT);
-		ResultatEnregistrerDocumentSwift resultatEnregistrerDocumentSwift = stockageTraitement.enregistrerDocumentSwift(resultatHorodatageDocumentSigne.getContenuDocument(), SwiftUtils.getContainerNameMention(), idActe);
+		ResultatHorodatageDocumentSigne resultatHorodatageDocumentSigne =
+				mesureEtapes.mesurer(EtapeSignatureMentions.VALIDATION_HORODATAGE, TypeDocumentComposition.MENTIONS_ULTERIEURES,
+									 () -> horodatageTraitement.validationEtRecuperationDateHorodatage(documentSignePadesLT));
+		ResultatEnregistrerDocumentSwift resultatEnregistrerDocumentSwift =
+				mesureEtapes.mesurer(EtapeSignatureMentions.STOCKAGE_SWIFT, TypeDocumentComposition.MENTIONS_ULTERIEURES,
+									 () -> stockageTraitement.enregistrerDocumentSwift(resultatHorodatageDocumentSigne.getContenuDocument(), SwiftUtils.getContainerNameMention(), idActe));
 		return Pair.of(resultatEnregistrerDocumentSwift, resultatHorodatageDocumentSigne);
 	}
 
@@ -364,10 +490,7 @@ public class MentionService implements MentionTraitement {
 		updateMentionPort.majMentionsApresSignature(idsMentions, dateHorodatage, idDocumentMentions);
 	}
 
-	private Acte getActeSigneById(UUID idActe, String idArobas) {
-		// Vérification des droits
-		Utilisateur utilisateur = loadUtilisateursPort.getUtilisateurByIdArobas(idArobas);
-		VerificationDroits.controlerUtilisateur(utilisateur);
+	private Acte getActeSigneById(UUID idActe) {
 		// Récupération de l'acte signé
 		Acte acte = loadActePort.getActeSigneById(idActe);
 		if (acte == null) {
@@ -393,16 +516,17 @@ public class MentionService implements MentionTraitement {
 
 		// On supprime les analyses marginales non valides s'il y en a
 		analyseMarginaleTraitement.supprimerAnalysesMarginalesNonValides(idActe);
+		compositionJsonActeCache.invalider(idActe);
 	}
 
 	public void ajouterMentionsCreation(List<Mention> mentions, UUID idActe) {
-		Long dernierNumeroOrdre = Optional.ofNullable(loadMentionPort.getDernierNumeroOrdreMentionsSigneeActeById(idActe)).
-										  orElse(0L);
+		Long dernierNumeroOrdre = allocationNumeroOrdre.getDernierNumeroOrdreMentionsSignees(idActe);
 
 		mentions.forEach(mention -> {
 			initialiserChampsMentionCreation(mention, dernierNumeroOrdre);
 			updateMentionPort.addMention(mention, idActe);
 		});
+		compositionJsonActeCache.invalider(idActe);
 	}
 
 	public void supprimerMajMentionsCreation(List<Mention> mentions) {
@@ -471,6 +595,6 @@ public class MentionService implements MentionTraitement {
 	}
 
 	public Byte attributionProchainNumeroOrdreDocumentMention(UUID idActe) {
-		return (byte) ((loadMentionPort.getDernierNumeroOrdreSignatureDocumentMentionsActeById(idActe) == null ? 0 : loadMentionPort.getDernierNumeroOrdreSignatureDocumentMentionsActeById(idActe)) + 1);
+		return allocationNumeroOrdre.getProchainNumeroOrdreDocumentMentions(idActe);
 	}
 }